@@ -0,0 +1,15 @@
+package processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity built with Lombok's {@code @SuperBuilder} and {@code @Data} for a generated Gson TypeAdapter.
+ * The adapter is registered through {@code META-INF/services/com.google.gson.TypeAdapterFactory}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateTypeAdapter {
+}
@@ -0,0 +1,313 @@
+package processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a straight-line Gson TypeAdapter for every type annotated with {@link GenerateTypeAdapter}.
+ * Fields are written from the Lombok getters and read through the Lombok setters, so no reflection is involved.
+ * Besides {@code read}, each adapter has a {@code mergeInto(JsonReader, entity)} method that streams a JSON object
+ * into an existing instance; {@code read} merges into an instance from the empty builder.
+ * Fields inherited from a superclass are included when the superclass declares public getters and setters for them.
+ * JSON names follow {@code @SerializedName}, or Gson's LOWER_CASE_WITH_UNDERSCORES policy without it.
+ * Scalars are handled inline, other field types delegate to the adapter Gson resolves for them.
+ */
+@SupportedAnnotationTypes("processor.GenerateTypeAdapter")
+public class TypeAdapterProcessor extends AbstractProcessor {
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String FACTORY_SERVICE = "META-INF/services/com.google.gson.TypeAdapterFactory";
+
+    // Scalar field types with their JsonReader method
+    private static final Map<String, String> SCALARS = Map.of(
+            "java.lang.String", "nextString",
+            "java.lang.Boolean", "nextBoolean",
+            "java.lang.Double", "nextDouble",
+            "java.lang.Integer", "nextInt",
+            "java.lang.Long", "nextLong");
+
+    private final List<String> factories = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateTypeAdapter.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@GenerateTypeAdapter only applies to classes", element);
+                continue;
+            }
+            var entity = (TypeElement) element;
+            try {
+                generateAdapter(entity);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot generate TypeAdapter: " + e.getMessage(), entity);
+            }
+        }
+
+        if (roundEnv.processingOver() && !factories.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private void generateAdapter(TypeElement entity) throws IOException {
+        var packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+        var entityName = entity.getQualifiedName().toString();
+        var adapterName = entity.getSimpleName() + "TypeAdapter";
+
+        var fields = new ArrayList<FieldModel>();
+        for (VariableElement field : serializedFields(entity)) {
+            if (field.asType().getKind().isPrimitive()) {
+                // A null check decides whether a field is written, which primitives cannot take part in
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Use a boxed type for generated TypeAdapters", field);
+                continue;
+            }
+            fields.add(new FieldModel(field.getSimpleName().toString(), jsonName(field), field.asType().toString()));
+        }
+        var superclass = entity.getSuperclass();
+        while (superclass.getKind() == TypeKind.DECLARED) {
+            var superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+            if (superElement.getQualifiedName().contentEquals("java.lang.Object")) {
+                break;
+            }
+            for (VariableElement field : serializedFields(superElement)) {
+                // Type arguments of the superclass are resolved as seen from the entity
+                var fieldType = processingEnv.getTypeUtils().asMemberOf((DeclaredType) entity.asType(), field);
+                var model = new FieldModel(field.getSimpleName().toString(), jsonName(field), fieldType.toString());
+                if (fieldType.getKind().isPrimitive() || !hasAccessors(superElement, model)) {
+                    // Neither readable nor writable without reflection, the generated adapter leaves it out
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Inherited field " + superElement.getSimpleName()
+                            + "." + model.name() + " has no public boxed getter and setter and is not serialized", entity);
+                    continue;
+                }
+                fields.add(model);
+            }
+            superclass = superElement.getSuperclass();
+        }
+
+        var source = new StringBuilder()
+                .append("package ").append(packageName).append(";\n\n")
+                .append("import com.google.gson.Gson;\n")
+                .append("import com.google.gson.TypeAdapter;\n")
+                .append("import com.google.gson.TypeAdapterFactory;\n")
+                .append("import com.google.gson.reflect.TypeToken;\n")
+                .append("import com.google.gson.stream.JsonReader;\n")
+                .append("import com.google.gson.stream.JsonToken;\n")
+                .append("import com.google.gson.stream.JsonWriter;\n\n")
+                .append("import java.io.IOException;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(TypeAdapterProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(adapterName).append(" extends TypeAdapter<").append(entityName).append("> {\n\n")
+                .append("    private final Gson gson;\n");
+        for (FieldModel field : fields) {
+            if (!field.isScalar()) {
+                source.append("    private TypeAdapter<").append(field.type()).append("> ").append(field.adapterName()).append(";\n");
+            }
+        }
+
+        source.append("\n    ").append(adapterName).append("(Gson gson) {\n")
+                .append("        this.gson = gson;\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public void write(JsonWriter out, ").append(entityName).append(" value) throws IOException {\n")
+                .append("        if (value == null) {\n")
+                .append("            out.nullValue();\n")
+                .append("            return;\n")
+                .append("        }\n")
+                .append("        out.beginObject();\n");
+        for (FieldModel field : fields) {
+            source.append("        if (value.").append(field.getter()).append("() != null) {\n")
+                    .append("            out.name(\"").append(field.jsonName()).append("\");\n");
+            if (field.isScalar()) {
+                source.append("            out.value(value.").append(field.getter()).append("());\n");
+            } else {
+                source.append("            ").append(field.adapterName()).append("().write(out, value.").append(field.getter()).append("());\n");
+            }
+            source.append("        }\n");
+        }
+        source.append("        out.endObject();\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public ").append(entityName).append(" read(JsonReader in) throws IOException {\n")
+                .append("        if (in.peek() == JsonToken.NULL) {\n")
+                .append("            in.nextNull();\n")
+                .append("            return null;\n")
+                .append("        }\n")
+                .append("        var entity = ").append(entityName).append(".builder().build();\n")
+                .append("        mergeInto(in, entity);\n")
+                .append("        return entity;\n")
+                .append("    }\n\n");
+
+        source.append("    /**\n")
+                .append("     * Streams a JSON object into an existing instance; only the members present in the JSON are written\n")
+                .append("     */\n")
+                .append("    public void mergeInto(JsonReader in, ").append(entityName).append(" target) throws IOException {\n")
+                .append("        in.beginObject();\n")
+                .append("        while (in.hasNext()) {\n")
+                .append("            switch (in.nextName()) {\n");
+        for (FieldModel field : fields) {
+            source.append("                case \"").append(field.jsonName()).append("\" -> target.").append(field.setter()).append("(");
+            if (field.isScalar()) {
+                source.append(field.scalarReader()).append("(in)");
+            } else {
+                source.append(field.adapterName()).append("().read(in)");
+            }
+            source.append(");\n");
+        }
+        source.append("                default -> in.skipValue();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        in.endObject();\n")
+                .append("    }\n");
+
+        var scalarTypes = fields.stream().filter(FieldModel::isScalar).map(FieldModel::type).distinct().toList();
+        for (String scalarType : scalarTypes) {
+            var readerName = FieldModel.scalarReader(scalarType);
+            source.append("\n    private static ").append(scalarType).append(" ").append(readerName).append("(JsonReader in) throws IOException {\n")
+                    .append("        if (in.peek() == JsonToken.NULL) {\n")
+                    .append("            in.nextNull();\n")
+                    .append("            return null;\n")
+                    .append("        }\n")
+                    .append("        return in.").append(SCALARS.get(scalarType)).append("();\n")
+                    .append("    }\n");
+        }
+        for (FieldModel field : fields) {
+            if (field.isScalar()) {
+                continue;
+            }
+            source.append("\n    private TypeAdapter<").append(field.type()).append("> ").append(field.adapterName()).append("() {\n")
+                    .append("        if (").append(field.adapterName()).append(" == null) {\n")
+                    .append("            ").append(field.adapterName()).append(" = gson.getAdapter(new TypeToken<").append(field.type()).append(">() {\n")
+                    .append("            });\n")
+                    .append("        }\n")
+                    .append("        return ").append(field.adapterName()).append(";\n")
+                    .append("    }\n");
+        }
+
+        source.append("\n    public static final class Factory implements TypeAdapterFactory {\n\n")
+                .append("        @Override\n")
+                .append("        @SuppressWarnings(\"unchecked\")\n")
+                .append("        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {\n")
+                .append("            return type.getRawType() == ").append(entityName).append(".class ? (TypeAdapter<T>) new ")
+                .append(adapterName).append("(gson) : null;\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        var qualifiedAdapterName = packageName.isEmpty() ? adapterName : packageName + "." + adapterName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedAdapterName, entity).openWriter()) {
+            writer.write(source.toString());
+        }
+        factories.add(qualifiedAdapterName + "$Factory");
+    }
+
+    private static List<VariableElement> serializedFields(TypeElement type) {
+        return ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+                .filter(field -> !field.getModifiers().contains(Modifier.STATIC) && !field.getModifiers().contains(Modifier.TRANSIENT))
+                .toList();
+    }
+
+    /**
+     * Whether a superclass declares the public getter and setter the generated code calls for one of its fields
+     */
+    private static boolean hasAccessors(TypeElement type, FieldModel field) {
+        var methods = ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                .filter(method -> method.getModifiers().contains(Modifier.PUBLIC))
+                .map(method -> method.getSimpleName().toString())
+                .toList();
+        return methods.contains(field.getter()) && methods.contains(field.setter());
+    }
+
+    private void writeServiceFile() {
+        try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", FACTORY_SERVICE).openWriter()) {
+            for (String factory : factories) {
+                writer.write(factory);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + FACTORY_SERVICE + ": " + e.getMessage());
+        }
+    }
+
+    private static String jsonName(VariableElement field) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(SERIALIZED_NAME)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        return (String) entry.getValue().getValue();
+                    }
+                }
+            }
+        }
+        return lowerCaseWithUnderscores(field.getSimpleName().toString());
+    }
+
+    /**
+     * Same translation as Gson's FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES
+     */
+    static String lowerCaseWithUnderscores(String name) {
+        var translated = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char character = name.charAt(i);
+            if (Character.isUpperCase(character) && translated.length() != 0) {
+                translated.append('_');
+            }
+            translated.append(character);
+        }
+        return translated.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    private record FieldModel(String name, String jsonName, String type) {
+
+        boolean isScalar() {
+            return SCALARS.containsKey(type);
+        }
+
+        String scalarReader() {
+            return scalarReader(type);
+        }
+
+        static String scalarReader(String scalarType) {
+            return "read" + scalarType.substring(scalarType.lastIndexOf('.') + 1);
+        }
+
+        String getter() {
+            return "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+
+        String setter() {
+            return "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+
+        String adapterName() {
+            return name + "Adapter";
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package base;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of Trello requests in flight and adapts the limit to the service (AIMD):
+ * while latency stays close to the best latency of recent requests, the limit grows by one per round trip,
+ * on 429/5xx responses or inflated latency it shrinks multiplicatively, at most once per round trip.
+ * The best latency is taken over the last one or two windows of {@value #BASELINE_WINDOW} requests, so that
+ * a short burst of fast calls does not make every slower call (batches, board graphs) look inflated for good.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.75;
+    private static final double SMOOTHING = 0.2;
+    private static final int BASELINE_WINDOW = 100;
+
+    private static volatile AdaptiveConcurrencyLimiter instance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+
+    private double limit;
+    private int inFlight;
+    private long windowMinLatencyNanos = Long.MAX_VALUE;
+    private long previousWindowMinLatencyNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private double smoothedLatencyNanos;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double latencyTolerance) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.lastDecreaseNanos = System.nanoTime() - TimeUnit.HOURS.toNanos(1);
+    }
+
+    /**
+     * Limiter shared by all repositories and the Trello client
+     */
+    public static AdaptiveConcurrencyLimiter getInstance() {
+        if (instance == null) {
+            synchronized (AdaptiveConcurrencyLimiter.class) {
+                if (instance == null) {
+                    var settings = TrelloSettings.current().getConcurrency();
+                    instance = new AdaptiveConcurrencyLimiter(settings.getInitialLimit(), settings.getMinLimit(),
+                            settings.getMaxLimit(), settings.getLatencyTolerance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a request in a concurrency slot. Failed requests count as overload when their status is 429 or 5xx.
+     */
+    public <R> R call(Supplier<R> request) {
+        acquire();
+        long start = System.nanoTime();
+        try {
+            var result = request.get();
+            release(System.nanoTime() - start, false);
+            return result;
+        } catch (RuntimeException | Error e) {
+            release(System.nanoTime() - start, isOverload(statusOf(e)));
+            throw e;
+        }
+    }
+
+    public void acquire() {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                slotAvailable.awaitUninterruptibly();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a slot and adapts the limit to the observed latency and outcome
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            windowMinLatencyNanos = Math.min(windowMinLatencyNanos, latencyNanos);
+            long minLatencyNanos = Math.min(previousWindowMinLatencyNanos, windowMinLatencyNanos);
+            if (++windowSamples == BASELINE_WINDOW) {
+                previousWindowMinLatencyNanos = windowMinLatencyNanos;
+                windowMinLatencyNanos = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            smoothedLatencyNanos = smoothedLatencyNanos == 0
+                    ? latencyNanos
+                    : smoothedLatencyNanos + SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+
+            long now = System.nanoTime();
+            boolean latencyInflated = smoothedLatencyNanos > minLatencyNanos * latencyTolerance;
+            if (overloaded || latencyInflated) {
+                if (now - lastDecreaseNanos > smoothedLatencyNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inFlight + 1 >= (int) limit / 2) {
+                // Only grow while the current limit is actually used
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static boolean isOverload(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * HTTP status of a failed request, or -1 when it is unknown; taken from the first {@link TrelloApiException}
+     * among the causes, see {@link TrelloApiException#wrap(RuntimeException)} for failures of the generic repository
+     */
+    static int statusOf(Throwable failure) {
+        for (var cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof TrelloApiException apiException && apiException.getStatusCode() > 0) {
+                return apiException.getStatusCode();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Current number of requests allowed in flight
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,25 +1,479 @@
 package base;
 
-import com.google.gson.FieldNamingPolicy;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import solutions.bellatrix.core.configuration.ConfigurationService;
 import solutions.bellatrix.data.configuration.DataSettings;
+import solutions.bellatrix.data.configuration.RepositoryProvider;
 import solutions.bellatrix.data.http.httpContext.HttpContext;
 import solutions.bellatrix.data.http.infrastructure.HttpEntity;
 import solutions.bellatrix.data.http.infrastructure.HttpRepository;
 import solutions.bellatrix.data.http.infrastructure.JsonConverter;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 public abstract class BaseTrelloRepository<T extends HttpEntity<String, T>> extends HttpRepository<T> {
 
+    // One virtual thread per request, so independent calls can be in flight at the same time
+    private static final ExecutorService ASYNC_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Trello's /batch endpoint accepts at most 10 URLs per call
+    private static final int BATCH_SIZE = 10;
+
+    // Synced states kept per repository, see synced
+    private static final int MAX_SYNCED_ENTITIES = 10_000;
+
+    // Gson setup is done once and shared by all repositories
+    private static final JsonConverter JSON_CONVERTER = new JsonConverter(TrelloJson::configure);
+
+    // Http settings resolved once per credentials; a request only wraps them in a new context with its path
+    private static final Map<TrelloCredentials, Function<String, HttpContext>> HTTP_CONTEXT_TEMPLATES = new ConcurrentHashMap<>();
+
+    // Hooks that see every entity before it is written, see addWriteInterceptor
+    private static final List<WriteInterceptor> WRITE_INTERCEPTORS = new CopyOnWriteArrayList<>();
+
+    // The generic HTTP repository does not expose response headers, so a 429 it runs into pauses for one second
+    private static final HttpHeaders RATE_LIMITED_HEADERS = HttpHeaders.of(
+            Map.of(TokenBucketRateLimiter.RETRY_AFTER_HEADER, List.of("1")), (name, value) -> true);
+
+    // Reads of the same entity that overlap in time share one request, see get
+    private static final SingleFlight<ReadKey, String> IN_FLIGHT_READS = new SingleFlight<>();
+
+    private final Class<T> entityClass;
+    private final String pathParameter;
+    private final EntityFields<T> fields;
+    private final boolean mergeResponses = TrelloSettings.current().isMergeResponses();
+    // Field values last synced with Trello per identifier, the base for sending only changed fields.
+    // The least recently used entities are dropped beyond the limit; their next update is sent in full.
+    private final Map<String, Object[]> synced = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object[]> eldest) {
+            return size() > MAX_SYNCED_ENTITIES;
+        }
+    });
+
     protected BaseTrelloRepository(Class<T> entityClass, String pathParameter) {
         super(entityClass,
-                new JsonConverter(builder -> {
-                    builder.setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES);
-                }),
-                () -> {
-                    var httpSettings = ConfigurationService.get(DataSettings.class).getHttpSettings();
-                    var httpContext = new HttpContext(httpSettings);
-                    httpContext.addPathParameter(pathParameter);
-                    return httpContext;
+                JSON_CONVERTER,
+                () -> createHttpContext(pathParameter));
+        this.entityClass = entityClass;
+        this.pathParameter = pathParameter;
+        this.fields = EntityFields.of(entityClass);
+    }
+
+    /**
+     * Builds the request context with the credentials that are active for the current request
+     */
+    protected static HttpContext createHttpContext(String pathParameter) {
+        return HTTP_CONTEXT_TEMPLATES
+                .computeIfAbsent(CredentialPool.getInstance().active(), BaseTrelloRepository::httpContextTemplate)
+                .apply(pathParameter);
+    }
+
+    private static Function<String, HttpContext> httpContextTemplate(TrelloCredentials credentials) {
+        var httpSettings = ConfigurationService.get(DataSettings.class).getHttpSettings();
+        if (CredentialPool.getInstance().isConfigured()) {
+            httpSettings = CredentialPool.applyTo(httpSettings, credentials);
+        }
+        var resolvedSettings = httpSettings;
+        return pathParameter -> {
+            var httpContext = new HttpContext(resolvedSettings);
+            httpContext.addPathParameter(pathParameter);
+            return httpContext;
+        };
+    }
+
+    /**
+     * Resolves the registered Trello repository for the given entity type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends HttpEntity<String, T>> BaseTrelloRepository<T> of(Class<T> entityClass) {
+        return (BaseTrelloRepository<T>) RepositoryProvider.INSTANCE.get(entityClass);
+    }
+
+    /**
+     * Executor backing the asynchronous repository operations
+     */
+    public static ExecutorService asyncExecutor() {
+        return ASYNC_EXECUTOR;
+    }
+
+    /**
+     * Registers a hook that is called before any entity is created, updated or deleted.
+     * It may redirect the write by changing the entity's identifiers, or veto it by throwing.
+     */
+    public static void addWriteInterceptor(WriteInterceptor interceptor) {
+        WRITE_INTERCEPTORS.add(interceptor);
+    }
+
+    @Override
+    public T create(T entity) {
+        beforeWrite(entity);
+        return execute(entity, () -> {
+            var created = mergeInto(entity, super.create(entity));
+            var credentialPool = CredentialPool.getInstance();
+            credentialPool.assign(created.getIdentifier(), credentialPool.active());
+            return remember(created, entity);
+        });
+    }
+
+    /**
+     * Concurrent reads of the same entity share one request; each caller then reads the shared JSON into its own instance.
+     * In merge mode that is the passed instance, which is returned with its links intact.
+     */
+    @Override
+    public T get(T entity) {
+        if (entity.getIdentifier() == null) {
+            return remember(execute(entity, () -> super.get(entity)));
+        }
+        var cache = EntityCache.getInstance();
+        var json = IN_FLIGHT_READS.run(new ReadKey(entityClass, entity.getIdentifier()), () -> cache != null
+                ? cache.get(entityClass, entity.getIdentifier(), etag -> fetchJson(entity, etag))
+                : fetchJson(entity, null).json());
+        try {
+            return remember(readResponse(new JsonReader(new StringReader(json)), entity));
+        } catch (IOException e) {
+            throw new TrelloApiException("Cannot read " + entityClass.getSimpleName() + " " + entity.getIdentifier(), e);
+        }
+    }
+
+    /**
+     * Downloads the JSON of an entity, as a conditional request when a cached version has an entity tag
+     */
+    private EntityCache.Response fetchJson(T entity, String etag) {
+        var headers = etag != null ? Map.of("If-None-Match", etag) : Map.<String, String>of();
+        var credentialPool = CredentialPool.getInstance();
+        return credentialPool.callAs(credentialPool.select(entity), () -> TrelloClient.getInstance().send(
+                "GET", pathParameter + "/" + entity.getIdentifier(), Map.of(), headers, null,
+                (statusCode, responseHeaders, body) -> statusCode == 304
+                        ? EntityCache.Response.notModifiedResponse()
+                        : new EntityCache.Response(false, new String(body.readAllBytes(), StandardCharsets.UTF_8),
+                                responseHeaders.firstValue("ETag").orElse(null))));
+    }
+
+    /**
+     * Loads only the fields of the given getters, e.g. {@code get(board, Board::getName, Board::getClosed)}
+     */
+    @SafeVarargs
+    public final T get(T entity, Projection.Getter<T, ?>... fields) {
+        return get(entity, Projection.of(entityClass, fields));
+    }
+
+    public T get(T entity, String projectionName) {
+        return get(entity, Projection.named(entityClass, projectionName));
+    }
+
+    /**
+     * Loads only the projected fields through Trello's fields parameter.
+     * The result is a new instance whose other fields are null, so it is neither merged nor remembered as synced state;
+     * passing it to {@link #update} would clear those fields.
+     */
+    public T get(T entity, Projection<T> projection) {
+        var credentialPool = CredentialPool.getInstance();
+        return credentialPool.callAs(credentialPool.select(entity), () -> TrelloClient.getInstance().get(
+                pathParameter + "/" + entity.getIdentifier(), Map.of("fields", projection.toQueryValue()),
+                reader -> TrelloJson.GSON.<T>fromJson(reader, entityClass)));
+    }
+
+    /**
+     * Sends only the fields that changed since the entity was last synced.
+     * Entities this repository has not seen yet are updated in full.
+     */
+    @Override
+    public T update(T entity) {
+        beforeWrite(entity);
+        invalidate(entity.getIdentifier());
+        var snapshot = entity.getIdentifier() != null ? synced.get(entity.getIdentifier()) : null;
+        if (snapshot == null) {
+            return remember(execute(entity, () -> mergeInto(entity, super.update(entity))), entity);
+        }
+        long dirtyMask = fields.dirtyMask(entity, snapshot);
+        return dirtyMask == 0 ? entity : updateFields(entity, dirtyMask);
+    }
+
+    @Override
+    public void delete(T entity) {
+        beforeWrite(entity);
+        invalidate(entity.getIdentifier());
+        execute(entity, () -> {
+            super.delete(entity);
+            return null;
+        });
+        forget(entity.getIdentifier());
+    }
+
+    /**
+     * Fields of the entity that would be sent by the next {@link #update}
+     */
+    public long dirtyFields(T entity) {
+        return fields.dirtyMask(entity, entity.getIdentifier() != null ? synced.get(entity.getIdentifier()) : null);
+    }
+
+    /**
+     * Sends a partial update with the fields of the mask only, see {@link EntityFields}
+     */
+    protected T updateFields(T entity, long fieldMask) {
+        beforeWrite(entity);
+        invalidate(entity.getIdentifier());
+        var body = fields.toJson(entity, fieldMask).toString();
+        var credentialPool = CredentialPool.getInstance();
+        var updated = credentialPool.callAs(credentialPool.select(entity), () -> TrelloClient.getInstance().put(
+                pathParameter + "/" + entity.getIdentifier(), Map.of(), body,
+                reader -> readResponse(reader, entity)));
+        return remember(updated, entity);
+    }
+
+    private T readResponse(JsonReader reader, T entity) throws IOException {
+        if (!mergeResponses) {
+            return TrelloJson.GSON.fromJson(reader, entityClass);
+        }
+        fields.merge(reader, entity);
+        return entity;
+    }
+
+    /**
+     * Copies a response entity of the generic HTTP repository back into the passed instance in merge mode
+     */
+    private T mergeInto(T entity, T response) {
+        if (!mergeResponses || response == null || response == entity) {
+            return response;
+        }
+        fields.copy(response, entity);
+        return entity;
+    }
+
+    protected EntityFields<T> fields() {
+        return fields;
+    }
+
+    protected T remember(T entity) {
+        return remember(entity, null);
+    }
+
+    /**
+     * Remembers the synced state after writing an entity, see {@link EntityFields#snapshot(Object, Object)}
+     */
+    protected T remember(T response, T written) {
+        if (response != null && response.getIdentifier() != null) {
+            synced.put(response.getIdentifier(), fields.snapshot(response, written));
+        }
+        return response;
+    }
+
+    private static void beforeWrite(HttpEntity<String, ?> entity) {
+        for (WriteInterceptor interceptor : WRITE_INTERCEPTORS) {
+            interceptor.beforeWrite(entity);
+        }
+    }
+
+    protected void invalidate(String id) {
+        if (id == null) {
+            return;
+        }
+        IN_FLIGHT_READS.forget(new ReadKey(entityClass, id));
+        var cache = EntityCache.getInstance();
+        if (cache != null) {
+            cache.invalidate(entityClass, id);
+        }
+    }
+
+    protected void forget(String id) {
+        if (id != null) {
+            invalidate(id);
+            synced.remove(id);
+            CredentialPool.getInstance().forget(id);
+        }
+    }
+
+    /**
+     * Runs a request of the generic HTTP repository with the credentials owning the entity,
+     * under the rate limiter of those credentials and in a slot of the adaptive concurrency limiter.
+     * Failures are raised as {@link TrelloApiException}, with the status when it is known; a 429 pauses the rate limiter.
+     */
+    protected <R> R execute(T entity, Supplier<R> request) {
+        var credentialPool = CredentialPool.getInstance();
+        var credentials = credentialPool.select(entity);
+        return credentialPool.callAs(credentials, () -> {
+            var rateLimiter = RateLimiters.forCredentials(credentials);
+            rateLimiter.acquire();
+            try {
+                return AdaptiveConcurrencyLimiter.getInstance().call(() -> {
+                    try {
+                        return request.get();
+                    } catch (RuntimeException e) {
+                        throw TrelloApiException.wrap(e);
+                    }
                 });
+            } catch (TrelloApiException e) {
+                if (e.getStatusCode() == 429) {
+                    rateLimiter.onResponse(429, RATE_LIMITED_HEADERS);
+                }
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Number of requests currently allowed in flight by the adaptive concurrency limiter
+     */
+    public static int concurrencyLimit() {
+        return AdaptiveConcurrencyLimiter.getInstance().getLimit();
+    }
+
+    /**
+     * Budget currently available across all API tokens
+     */
+    public static long availableRequests() {
+        return CredentialPool.getInstance().getCredentials().stream()
+                .mapToLong(credentials -> RateLimiters.forCredentials(credentials).availablePermits())
+                .sum();
+    }
+
+    public CompletableFuture<T> createAsync(T entity) {
+        return CompletableFuture.supplyAsync(() -> create(entity), ASYNC_EXECUTOR);
+    }
+
+    public CompletableFuture<T> getAsync(T entity) {
+        return CompletableFuture.supplyAsync(() -> get(entity), ASYNC_EXECUTOR);
+    }
+
+    public CompletableFuture<T> updateAsync(T entity) {
+        return CompletableFuture.supplyAsync(() -> update(entity), ASYNC_EXECUTOR);
+    }
+
+    public CompletableFuture<Void> deleteAsync(T entity) {
+        return CompletableFuture.runAsync(() -> delete(entity), ASYNC_EXECUTOR);
+    }
+
+    /**
+     * Refreshes all given entities through Trello's /batch endpoint, up to 10 reads per round trip.
+     * Results are streamed into the passed instances, so transient dependency references are kept.
+     */
+    public BatchResult<T> getAll(Collection<T> entities) {
+        var result = new BatchResult<T>();
+        var entitiesById = new LinkedHashMap<String, List<T>>();
+        for (T entity : entities) {
+            if (entity.getIdentifier() == null) {
+                result.failed(entity, new IllegalArgumentException("Entity has no identifier"));
+            } else {
+                entitiesById.computeIfAbsent(entity.getIdentifier(), id -> new ArrayList<>()).add(entity);
+            }
+        }
+
+        // A batch is executed with one token, so identifiers are grouped by the token owning them
+        var credentialPool = CredentialPool.getInstance();
+        var idsByOwner = new LinkedHashMap<TrelloCredentials, List<String>>();
+        entitiesById.keySet().forEach(id -> idsByOwner.computeIfAbsent(credentialPool.ownerOf(id), owner -> new ArrayList<>()).add(id));
+
+        var chunks = new ArrayList<CompletableFuture<Void>>();
+        idsByOwner.forEach((owner, ids) -> {
+            for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+                var chunk = ids.subList(start, Math.min(start + BATCH_SIZE, ids.size()));
+                chunks.add(CompletableFuture.runAsync(() -> credentialPool.callAs(owner, () -> {
+                    getChunk(chunk, entitiesById, result);
+                    return null;
+                }), ASYNC_EXECUTOR));
+            }
+        });
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+
+        return result;
+    }
+
+    private void getChunk(List<String> ids, Map<String, List<T>> entitiesById, BatchResult<T> result) {
+        var urls = String.join(",", ids.stream().map(id -> "/" + pathParameter + "/" + id).toList());
+        var answered = new AtomicInteger();
+        try {
+            TrelloClient.getInstance().get("batch", Map.of("urls", urls), reader -> {
+                readBatch(reader, ids, entitiesById, result, answered);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            ids.subList(answered.get(), ids.size()).forEach(id -> entitiesById.get(id).forEach(entity -> result.failed(entity, e)));
+            return;
+        }
+
+        for (String id : ids.subList(answered.get(), ids.size())) {
+            var missing = new TrelloApiException(500, "No batch response for " + id);
+            entitiesById.get(id).forEach(entity -> result.failed(entity, missing));
+        }
+    }
+
+    /**
+     * Streams the batch responses, which come in request order, straight into the requested instances
+     */
+    private void readBatch(JsonReader reader, List<String> ids, Map<String, List<T>> entitiesById,
+                           BatchResult<T> result, AtomicInteger answered) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            int index = answered.get();
+            if (index >= ids.size()) {
+                reader.skipValue();
+                continue;
+            }
+
+            var targets = entitiesById.get(ids.get(index));
+            reader.beginObject();
+            var status = reader.nextName();
+            if (status.equals("200")) {
+                var first = targets.get(0);
+                fields.merge(reader, first);
+                for (T target : targets) {
+                    if (target != first) {
+                        fields.copy(first, target);
+                    }
+                    result.succeeded(remember(target));
+                }
+            } else {
+                var failure = toFailure(status, JsonParser.parseReader(reader));
+                targets.forEach(entity -> result.failed(entity, failure));
+            }
+            while (reader.hasNext()) {
+                reader.nextName();
+                reader.skipValue();
+            }
+            reader.endObject();
+            answered.incrementAndGet();
+        }
+        reader.endArray();
+    }
+
+    private static TrelloApiException toFailure(String status, JsonElement body) {
+        int statusCode;
+        try {
+            statusCode = Integer.parseInt(status);
+        } catch (NumberFormatException e) {
+            statusCode = 500;
+        }
+        return new TrelloApiException(statusCode, body.toString());
+    }
+
+    /**
+     * Sees an entity before it is written to Trello, see {@link #addWriteInterceptor}
+     */
+    @FunctionalInterface
+    public interface WriteInterceptor {
+        void beforeWrite(HttpEntity<String, ?> entity);
+    }
+
+    private record ReadKey(Class<?> entityClass, String id) {
     }
 }
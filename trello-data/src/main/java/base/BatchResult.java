@@ -0,0 +1,38 @@
+package base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a grouped read: the entities that were refreshed and the per-entity failures
+ *
+ * @param <T> The entity type
+ */
+public class BatchResult<T> {
+
+    private final List<T> succeeded = new ArrayList<>();
+    private final Map<T, RuntimeException> failures = new IdentityHashMap<>();
+
+    synchronized void succeeded(T entity) {
+        succeeded.add(entity);
+    }
+
+    synchronized void failed(T entity, RuntimeException failure) {
+        failures.put(entity, failure);
+    }
+
+    public synchronized List<T> getSucceeded() {
+        return Collections.unmodifiableList(new ArrayList<>(succeeded));
+    }
+
+    public synchronized Map<T, RuntimeException> getFailures() {
+        return Collections.unmodifiableMap(new IdentityHashMap<>(failures));
+    }
+
+    public synchronized boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
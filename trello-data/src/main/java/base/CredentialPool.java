@@ -0,0 +1,150 @@
+package base;
+
+import com.google.gson.Gson;
+import solutions.bellatrix.data.http.infrastructure.HttpEntity;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Pool of Trello API credentials. Every created entity is owned by the token that created it and all later
+ * requests for the entity and its children use the same token, while new root entities go to the token
+ * with the largest remaining rate budget. With a single credential this degrades to the configured one.
+ */
+public final class CredentialPool {
+
+    private static final ThreadLocal<TrelloCredentials> ACTIVE = new ThreadLocal<>();
+    private static volatile CredentialPool instance;
+
+    private final List<TrelloCredentials> credentials;
+    private final boolean configured;
+    private final Map<String, TrelloCredentials> owners = new ConcurrentHashMap<>();
+
+    CredentialPool(List<TrelloCredentials> credentials, boolean configured) {
+        this.credentials = List.copyOf(credentials);
+        this.configured = configured;
+    }
+
+    public static CredentialPool getInstance() {
+        if (instance == null) {
+            synchronized (CredentialPool.class) {
+                if (instance == null) {
+                    var configuredCredentials = TrelloSettings.current().getCredentials().stream()
+                            .map(option -> new TrelloCredentials(TrelloCredentials.resolve(option.getKey()), TrelloCredentials.resolve(option.getToken())))
+                            .toList();
+                    instance = configuredCredentials.isEmpty()
+                            ? new CredentialPool(List.of(TrelloCredentials.fromSettings()), false)
+                            : new CredentialPool(configuredCredentials, true);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public List<TrelloCredentials> getCredentials() {
+        return Collections.unmodifiableList(credentials);
+    }
+
+    /**
+     * Whether the credentials come from trelloSettings instead of the dataSettings authentication options
+     */
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    /**
+     * Credentials of the request running on the current thread
+     */
+    public TrelloCredentials active() {
+        var active = ACTIVE.get();
+        return active != null ? active : credentials.get(0);
+    }
+
+    /**
+     * Picks the credentials for an entity: its owner, the owner of its closest known parent,
+     * or the least loaded credentials for a new root
+     */
+    public TrelloCredentials select(HttpEntity<String, ?> entity) {
+        if (credentials.size() == 1) {
+            return credentials.get(0);
+        }
+
+        var owner = entity.getIdentifier() != null ? owners.get(entity.getIdentifier()) : null;
+        if (owner == null && entity instanceof NestedEntity nested) {
+            owner = nested.getParentIds().stream()
+                    .map(owners::get)
+                    .filter(candidate -> candidate != null)
+                    .findFirst()
+                    .orElse(null);
+        }
+        return owner != null ? owner : leastLoaded();
+    }
+
+    /**
+     * Owner of an entity, or the active credentials when the entity was not created by this process
+     */
+    public TrelloCredentials ownerOf(String entityId) {
+        var owner = entityId != null ? owners.get(entityId) : null;
+        return owner != null ? owner : active();
+    }
+
+    public TrelloCredentials leastLoaded() {
+        return credentials.stream()
+                .max(Comparator.comparingLong(candidate -> RateLimiters.forCredentials(candidate).availablePermits()))
+                .orElseThrow();
+    }
+
+    public void assign(String entityId, TrelloCredentials owner) {
+        if (entityId != null && credentials.size() > 1) {
+            owners.put(entityId, owner);
+        }
+    }
+
+    public void forget(String entityId) {
+        if (entityId != null) {
+            owners.remove(entityId);
+        }
+    }
+
+    /**
+     * Runs a call with the given credentials active on the current thread
+     */
+    public <R> R callAs(TrelloCredentials credentials, Supplier<R> call) {
+        var previous = ACTIVE.get();
+        ACTIVE.set(credentials);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs a call with the credentials that own the given entity
+     */
+    public <R> R callFor(String entityId, Supplier<R> call) {
+        return callAs(ownerOf(entityId), call);
+    }
+
+    /**
+     * Returns a copy of the http settings whose authentication options carry the given key and token
+     */
+    @SuppressWarnings("unchecked")
+    public static <S> S applyTo(S httpSettings, TrelloCredentials credentials) {
+        var gson = new Gson();
+        var tree = gson.toJsonTree(httpSettings).getAsJsonObject();
+        for (var option : tree.getAsJsonObject("authentication").getAsJsonArray("options")) {
+            option.getAsJsonObject().addProperty("key", credentials.key());
+            option.getAsJsonObject().addProperty("token", credentials.token());
+        }
+        return gson.fromJson(tree, (Class<S>) httpSettings.getClass());
+    }
+}
@@ -0,0 +1,211 @@
+package base;
+
+import solutions.bellatrix.data.annotations.Dependency;
+import solutions.bellatrix.data.http.infrastructure.HttpEntity;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Plans the entity graph reachable through {@link Dependency} fields and materializes it level by level.
+ * Shared parents are deduplicated by identity, so a list referenced by many cards is created once,
+ * and all entities on the same topological level are created concurrently with bounded parallelism.
+ */
+public class DependencyGraph {
+
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private static final Map<Class<?>, List<DependencyField>> DEPENDENCY_FIELDS = new ConcurrentHashMap<>();
+
+    private final List<List<HttpEntity<?, ?>>> levels;
+    private final Map<HttpEntity<?, ?>, Integer> levelByEntity;
+
+    private DependencyGraph(List<List<HttpEntity<?, ?>>> levels, Map<HttpEntity<?, ?>, Integer> levelByEntity) {
+        this.levels = levels;
+        this.levelByEntity = levelByEntity;
+    }
+
+    public static DependencyGraph of(HttpEntity<?, ?>... roots) {
+        return of(Arrays.asList(roots));
+    }
+
+    /**
+     * Collects every entity reachable from the given roots into a DAG ordered by dependency depth
+     */
+    public static DependencyGraph of(Collection<? extends HttpEntity<?, ?>> roots) {
+        Map<HttpEntity<?, ?>, Integer> levelByEntity = new IdentityHashMap<>();
+        Map<HttpEntity<?, ?>, Boolean> visiting = new IdentityHashMap<>();
+        for (HttpEntity<?, ?> root : roots) {
+            resolveLevel(root, levelByEntity, visiting);
+        }
+
+        List<List<HttpEntity<?, ?>>> levels = new ArrayList<>();
+        levelByEntity.forEach((entity, level) -> {
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(entity);
+        });
+
+        return new DependencyGraph(levels, levelByEntity);
+    }
+
+    /**
+     * Returns the topological levels, parents first
+     */
+    public List<List<HttpEntity<?, ?>>> getLevels() {
+        return Collections.unmodifiableList(levels);
+    }
+
+    public int size() {
+        return levelByEntity.size();
+    }
+
+    /**
+     * Returns the direct dependencies of an entity as declared by its {@link Dependency} fields
+     */
+    public static List<HttpEntity<?, ?>> dependenciesOf(HttpEntity<?, ?> entity) {
+        var dependencies = new ArrayList<HttpEntity<?, ?>>();
+        for (DependencyField dependencyField : dependencyFields(entity.getClass())) {
+            var dependency = dependencyField.read(entity);
+            if (dependency != null) {
+                dependencies.add(dependency);
+            }
+        }
+        return dependencies;
+    }
+
+    public void create() {
+        create(DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Creates every entity that does not have an identifier yet, one level at a time.
+     * Before an entity is created its dependency setters are re-applied so the identifiers
+     * of the freshly created parents are propagated (e.g. {@code Card.idList}).
+     */
+    public void create(int parallelism) {
+        for (List<HttpEntity<?, ?>> level : levels) {
+            runConcurrently(level, parallelism, entity -> {
+                if (entity.getIdentifier() != null) {
+                    return;
+                }
+                for (DependencyField dependencyField : dependencyFields(entity.getClass())) {
+                    dependencyField.rewire(entity);
+                }
+                adoptIdentifier(entity, entity.create());
+            });
+        }
+    }
+
+    /**
+     * Outside merge mode create returns a new instance; its identifier is copied back, as createAsync does,
+     * so the dependants re-wired on the next level see it
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void adoptIdentifier(HttpEntity entity, Object created) {
+        if (created instanceof HttpEntity createdEntity && created != entity) {
+            entity.setIdentifier(createdEntity.getIdentifier());
+        }
+    }
+
+    public void delete() {
+        delete(DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Deletes every created entity of the graph, children first
+     */
+    public void delete(int parallelism) {
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            runConcurrently(levels.get(i), parallelism, entity -> {
+                if (entity.getIdentifier() != null) {
+                    entity.delete();
+                }
+            });
+        }
+    }
+
+    private static void runConcurrently(List<HttpEntity<?, ?>> entities, int parallelism, Consumer<HttpEntity<?, ?>> action) {
+        var failures = Parallel.forEach(entities, parallelism, action);
+        if (!failures.isEmpty()) {
+            throw failures.values().iterator().next();
+        }
+    }
+
+    private static int resolveLevel(HttpEntity<?, ?> entity, Map<HttpEntity<?, ?>, Integer> levelByEntity, Map<HttpEntity<?, ?>, Boolean> visiting) {
+        var known = levelByEntity.get(entity);
+        if (known != null) {
+            return known;
+        }
+        if (visiting.put(entity, Boolean.TRUE) != null) {
+            throw new IllegalStateException("Circular @Dependency detected at " + entity.getClass().getSimpleName());
+        }
+
+        int level = 0;
+        for (HttpEntity<?, ?> dependency : dependenciesOf(entity)) {
+            level = Math.max(level, resolveLevel(dependency, levelByEntity, visiting) + 1);
+        }
+
+        visiting.remove(entity);
+        levelByEntity.put(entity, level);
+        return level;
+    }
+
+    private static List<DependencyField> dependencyFields(Class<?> entityClass) {
+        return DEPENDENCY_FIELDS.computeIfAbsent(entityClass, type -> {
+            var fields = new ArrayList<DependencyField>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(Dependency.class)) {
+                        field.setAccessible(true);
+                        fields.add(new DependencyField(field, findSetter(type, field)));
+                    }
+                }
+            }
+            return fields;
+        });
+    }
+
+    private static Method findSetter(Class<?> entityClass, Field field) {
+        var name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            return entityClass.getMethod(name, field.getType());
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private record DependencyField(Field field, Method setter) {
+
+        HttpEntity<?, ?> read(Object entity) {
+            try {
+                return field.get(entity) instanceof HttpEntity<?, ?> dependency ? dependency : null;
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read dependency " + field.getName(), e);
+            }
+        }
+
+        void rewire(Object entity) {
+            var dependency = read(entity);
+            if (dependency == null || setter == null) {
+                return;
+            }
+            try {
+                setter.invoke(entity, dependency);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot wire dependency " + field.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package base;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded read-through cache of entity JSON keyed by entity type and identifier.
+ * Fresh entries are served from memory; entries older than the TTL are revalidated with {@code If-None-Match},
+ * so an unchanged entity costs a 304 instead of a full download. The least recently used entries are evicted
+ * beyond the size limit, and local updates and deletes invalidate their entry.
+ */
+public final class EntityCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    // Bumped by every invalidation, so a response fetched concurrently with it is not stored
+    private long generation;
+    private long hits;
+    private long revalidations;
+    private long misses;
+
+    EntityCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > EntityCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the process-wide cache, or {@code null} when caching is disabled
+     */
+    public static EntityCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the JSON of an entity, loading or revalidating it through the fetcher when needed
+     */
+    public String get(Class<?> entityClass, String id, Fetcher fetcher) {
+        var key = new Key(entityClass, id);
+        Entry cached;
+        long fetchGeneration;
+        synchronized (this) {
+            fetchGeneration = generation;
+            cached = entries.get(key);
+            if (cached != null && System.nanoTime() - cached.storedNanos() < ttlNanos) {
+                hits++;
+                return cached.json();
+            }
+        }
+
+        var response = fetcher.fetch(cached != null ? cached.etag() : null);
+        synchronized (this) {
+            boolean current = fetchGeneration == generation;
+            if (response.notModified() && cached != null) {
+                revalidations++;
+                if (current) {
+                    entries.put(key, new Entry(cached.json(), cached.etag(), System.nanoTime()));
+                }
+                return cached.json();
+            }
+            misses++;
+            if (current) {
+                entries.put(key, new Entry(response.json(), response.etag(), System.nanoTime()));
+            }
+            return response.json();
+        }
+    }
+
+    public synchronized void invalidate(Class<?> entityClass, String id) {
+        generation++;
+        entries.remove(new Key(entityClass, id));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getRevalidations() {
+        return revalidations;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Loads an entity, conditionally when an entity tag of the cached version is passed
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+        Response fetch(String etag);
+    }
+
+    /**
+     * A fetched entity, or a 304 confirming the cached one
+     */
+    public record Response(boolean notModified, String json, String etag) {
+
+        public static Response notModifiedResponse() {
+            return new Response(true, null, null);
+        }
+    }
+
+    private record Key(Class<?> entityClass, String id) {
+    }
+
+    private record Entry(String json, String etag, long storedNanos) {
+    }
+
+    /**
+     * Resolves the settings once on first use, so every later call is a plain read whether caching is enabled or not
+     */
+    private static final class Holder {
+
+        static final EntityCache INSTANCE = create();
+
+        private static EntityCache create() {
+            var settings = TrelloSettings.current().getCache();
+            return settings.isEnabled() ? new EntityCache(settings.getMaxEntries(), Duration.ofMillis(settings.getTtlMillis())) : null;
+        }
+    }
+}
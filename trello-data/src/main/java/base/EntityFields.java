@@ -0,0 +1,254 @@
+package base;
+
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized fields of an entity type, addressed by bit so the changes of an entity fit in a single {@code long}.
+ * A field is dirty when it holds a value other than the one last synced with Trello. A null value is only dirty
+ * when the synced value was set, as the generated builders and setters cannot tell an unset field from a cleared one;
+ * it is sent as a JSON null to clear the field.
+ * The same descriptor merges responses into existing instances without building a new entity, through the
+ * {@code mergeInto} method of the entity's generated TypeAdapter when it has one.
+ */
+public final class EntityFields<T> {
+
+    private static final Map<Class<?>, EntityFields<?>> CACHE = new ConcurrentHashMap<>();
+
+    private final Field[] fields;
+    private final String[] jsonNames;
+    // Every serialized field including the identifier, for merging responses into existing instances
+    private final Map<String, MergeTarget> mergeTargets = new HashMap<>();
+    private final Map<String, String> jsonNamesByField = new HashMap<>();
+    // mergeInto of the generated TypeAdapter bound to the adapter, null for entities Gson binds reflectively
+    private final MethodHandle generatedMerge;
+
+    private EntityFields(Class<T> entityClass) {
+        var serialized = new ArrayList<Field>();
+        for (Field field : entityClass.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                continue;
+            }
+            field.setAccessible(true);
+            mergeTargets.put(jsonName(field), new MergeTarget(field, TrelloJson.GSON.getAdapter(TypeToken.get(field.getGenericType()))));
+            jsonNamesByField.put(field.getName(), jsonName(field));
+            if (!field.getName().equals("id")) {
+                serialized.add(field);
+            }
+        }
+        if (serialized.size() > Long.SIZE) {
+            throw new IllegalStateException(entityClass.getSimpleName() + " has more than " + Long.SIZE + " serialized fields");
+        }
+
+        this.generatedMerge = generatedMerge(entityClass);
+        this.fields = serialized.toArray(Field[]::new);
+        this.jsonNames = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            jsonNames[i] = jsonName(fields[i]);
+        }
+    }
+
+    private static MethodHandle generatedMerge(Class<?> entityClass) {
+        var adapter = TrelloJson.GSON.getAdapter(entityClass);
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(adapter.getClass(), "mergeInto", MethodType.methodType(void.class, JsonReader.class, entityClass))
+                    .bindTo(adapter);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static String jsonName(Field field) {
+        var serializedName = field.getAnnotation(SerializedName.class);
+        return serializedName != null ? serializedName.value() : TrelloJson.GSON.fieldNamingStrategy().translateName(field);
+    }
+
+    /**
+     * JSON name of a serialized field, given its Java name
+     */
+    public String jsonName(String fieldName) {
+        var jsonName = jsonNamesByField.get(fieldName);
+        if (jsonName == null) {
+            throw new IllegalArgumentException("Unknown field " + fieldName);
+        }
+        return jsonName;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> EntityFields<T> of(Class<T> entityClass) {
+        return (EntityFields<T>) CACHE.computeIfAbsent(entityClass, EntityFields::new);
+    }
+
+    /**
+     * Captures the current field values as the synced state
+     */
+    public Object[] snapshot(T entity) {
+        var values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = read(fields[i], entity);
+        }
+        return values;
+    }
+
+    /**
+     * Captures the synced state after a write. Fields the response did not echo back take the written value,
+     * so local values Trello does not return are not reported as changes on every later update.
+     */
+    public Object[] snapshot(T response, T written) {
+        var values = snapshot(response);
+        if (written != null && written != response) {
+            for (int i = 0; i < fields.length; i++) {
+                if (values[i] == null) {
+                    values[i] = read(fields[i], written);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns one bit per field whose value differs from the snapshot, including fields cleared since;
+     * a null snapshot marks every set field
+     */
+    public long dirtyMask(T entity, Object[] snapshot) {
+        long mask = 0;
+        for (int i = 0; i < fields.length; i++) {
+            var value = read(fields[i], entity);
+            boolean changed = snapshot == null ? value != null : !Objects.equals(value, snapshot[i]);
+            if (changed) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the bits of the fields with the given JSON names
+     */
+    public long maskOf(String... names) {
+        long mask = 0;
+        for (String name : names) {
+            int index = List.of(jsonNames).indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown field " + name);
+            }
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+
+    /**
+     * Serializes only the fields of the mask
+     */
+    public JsonObject toJson(T entity, long mask) {
+        var json = new JsonObject();
+        for (int i = 0; i < fields.length; i++) {
+            if ((mask & (1L << i)) != 0) {
+                json.add(jsonNames[i], TrelloJson.GSON.toJsonTree(read(fields[i], entity)));
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Streams a JSON object into an existing instance. Only the members present in the JSON are written,
+     * so transient dependency links and fields missing from a partial response keep their values.
+     */
+    public void merge(JsonReader reader, T target) throws IOException {
+        if (generatedMerge != null) {
+            try {
+                generatedMerge.invoke(reader, target);
+            } catch (IOException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot merge into " + target.getClass().getSimpleName(), e);
+            }
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            var mergeTarget = mergeTargets.get(reader.nextName());
+            if (mergeTarget == null) {
+                reader.skipValue();
+                continue;
+            }
+            try {
+                mergeTarget.field().set(target, mergeTarget.adapter().read(reader));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot write field " + mergeTarget.field().getName(), e);
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Copies every serialized field, including the identifier, from one instance to another
+     */
+    public void copy(T source, T target) {
+        for (MergeTarget mergeTarget : mergeTargets.values()) {
+            try {
+                mergeTarget.field().set(target, mergeTarget.field().get(source));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot copy field " + mergeTarget.field().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Values of the entity's String fields, the identifier included, e.g. to find the entities it refers to
+     */
+    public List<String> stringValues(T entity) {
+        var values = new ArrayList<String>();
+        for (MergeTarget mergeTarget : mergeTargets.values()) {
+            if (mergeTarget.field().getType() == String.class && read(mergeTarget.field(), entity) instanceof String value) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Replaces every String field value, the identifier included, that is a key of the replacements
+     */
+    public void remap(T target, Map<String, String> replacements) {
+        for (MergeTarget mergeTarget : mergeTargets.values()) {
+            if (mergeTarget.field().getType() == String.class
+                    && read(mergeTarget.field(), target) instanceof String value && replacements.containsKey(value)) {
+                try {
+                    mergeTarget.field().set(target, replacements.get(value));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot write field " + mergeTarget.field().getName(), e);
+                }
+            }
+        }
+    }
+
+    private static Object read(Field field, Object entity) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read field " + field.getName(), e);
+        }
+    }
+
+    private record MergeTarget(Field field, TypeAdapter<?> adapter) {
+    }
+}
@@ -0,0 +1,12 @@
+package base;
+
+/**
+ * Implemented by entities that live inside other Trello entities (a list inside a board, a card inside a list)
+ */
+public interface NestedEntity {
+
+    /**
+     * Identifiers of the containing entities, closest first; unknown identifiers are omitted
+     */
+    java.util.List<String> getParentIds();
+}
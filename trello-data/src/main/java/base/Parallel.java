@@ -0,0 +1,42 @@
+package base;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Runs an action for many items on virtual threads with a bound on how many run at the same time
+ */
+public final class Parallel {
+
+    private Parallel() {
+    }
+
+    /**
+     * Applies the action to every item and waits for all of them.
+     * A failing item does not stop the others; failures are returned per item.
+     */
+    public static <E> Map<E, RuntimeException> forEach(Collection<E> items, int parallelism, Consumer<E> action) {
+        var permits = new Semaphore(Math.max(1, parallelism));
+        var failures = Collections.synchronizedMap(new IdentityHashMap<E, RuntimeException>());
+        var futures = items.stream()
+                .map(item -> CompletableFuture.runAsync(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        action.accept(item);
+                    } catch (RuntimeException e) {
+                        failures.put(item, e);
+                    } finally {
+                        permits.release();
+                    }
+                }, BaseTrelloRepository.asyncExecutor()))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(futures).join();
+        return failures;
+    }
+}
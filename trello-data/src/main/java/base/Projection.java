@@ -0,0 +1,95 @@
+package base;
+
+import java.io.Serializable;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Subset of entity fields to load, sent to Trello as the {@code fields} query parameter.
+ * Projections are built from getter references, e.g. {@code Projection.of(Board.class, Board::getName, Board::getClosed)},
+ * and can be registered under a name to be reused across tests.
+ */
+public final class Projection<T> {
+
+    private static final Map<Class<?>, Map<String, Projection<?>>> NAMED = new ConcurrentHashMap<>();
+
+    private final Class<T> entityClass;
+    private final Set<String> fields;
+
+    private Projection(Class<T> entityClass, Set<String> fields) {
+        this.entityClass = entityClass;
+        this.fields = Set.copyOf(fields);
+    }
+
+    /**
+     * Serializable getter reference, so the referenced getter and with it the field can be resolved
+     */
+    @FunctionalInterface
+    public interface Getter<T, R> extends Function<T, R>, Serializable {
+    }
+
+    @SafeVarargs
+    public static <T> Projection<T> of(Class<T> entityClass, Getter<T, ?>... getters) {
+        var entityFields = EntityFields.of(entityClass);
+        var fields = new LinkedHashSet<String>();
+        for (Getter<T, ?> getter : getters) {
+            fields.add(entityFields.jsonName(fieldName(getter)));
+        }
+        return new Projection<>(entityClass, fields);
+    }
+
+    /**
+     * Registers a projection under a name for its entity type
+     */
+    public static <T> Projection<T> register(String name, Projection<T> projection) {
+        NAMED.computeIfAbsent(projection.entityClass, type -> new ConcurrentHashMap<>()).put(name, projection);
+        return projection;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Projection<T> named(Class<T> entityClass, String name) {
+        var projection = NAMED.getOrDefault(entityClass, Map.of()).get(name);
+        if (projection == null) {
+            throw new IllegalArgumentException("No projection '" + name + "' registered for " + entityClass.getSimpleName());
+        }
+        return (Projection<T>) projection;
+    }
+
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * JSON names of the projected fields
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public String toQueryValue() {
+        return String.join(",", fields);
+    }
+
+    private static String fieldName(Getter<?, ?> getter) {
+        SerializedLambda lambda;
+        try {
+            var writeReplace = getter.getClass().getDeclaredMethod("writeReplace");
+            writeReplace.setAccessible(true);
+            lambda = (SerializedLambda) writeReplace.invoke(getter);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException("Projections need getter references such as Board::getName", e);
+        }
+
+        var methodName = lambda.getImplMethodName();
+        var prefix = methodName.startsWith("get") ? 3 : methodName.startsWith("is") ? 2 : -1;
+        if (prefix < 0 || methodName.length() == prefix) {
+            throw new IllegalArgumentException(methodName + " is not a getter");
+        }
+        return Character.toLowerCase(methodName.charAt(prefix)) + methodName.substring(prefix + 1);
+    }
+}
@@ -0,0 +1,24 @@
+package base;
+
+import java.net.http.HttpHeaders;
+
+/**
+ * Paces requests so that a Trello API token stays within its request budget
+ */
+public interface RateLimiter {
+
+    /**
+     * Blocks until a request may be sent
+     */
+    void acquire();
+
+    /**
+     * Feeds the status and the rate-limit headers of a response back into the limiter
+     */
+    void onResponse(int statusCode, HttpHeaders headers);
+
+    /**
+     * Number of requests that can be sent right now without waiting
+     */
+    long availablePermits();
+}
@@ -0,0 +1,32 @@
+package base;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one rate limiter per API token, since Trello budgets requests per token
+ */
+public final class RateLimiters {
+
+    private static final Map<String, RateLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private RateLimiters() {
+    }
+
+    public static RateLimiter forCredentials(TrelloCredentials credentials) {
+        return LIMITERS.computeIfAbsent(credentials.token(), token -> create(credentials));
+    }
+
+    private static RateLimiter create(TrelloCredentials credentials) {
+        var settings = TrelloSettings.current().getRateLimit();
+        var interval = Duration.ofMillis(settings.getIntervalMillis());
+        if (settings.isShared()) {
+            var directory = Path.of(settings.getSharedStateDirectory());
+            var stateFile = SharedTokenBucketRateLimiter.stateFile(directory, credentials);
+            return new SharedTokenBucketRateLimiter(stateFile, settings.getRequestsPerInterval(), interval);
+        }
+        return new TokenBucketRateLimiter(settings.getRequestsPerInterval(), interval);
+    }
+}
@@ -0,0 +1,136 @@
+package base;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.net.http.HttpHeaders;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket shared by every JVM on the host that uses the same API token.
+ * The bucket is kept as a single "theoretical arrival time" (GCRA, the virtual-scheduling form of a token bucket)
+ * in a small memory-mapped file and updated with lock-free compare-and-set, so Surefire forks and parallel
+ * executors draw from one budget without a coordinating process.
+ */
+public class SharedTokenBucketRateLimiter implements RateLimiter {
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int STATE_OFFSET = 0;
+    private static final int FILE_SIZE = 64;
+
+    private final MappedByteBuffer state;
+    private final long capacity;
+    private final long emissionIntervalMicros;
+    private final long burstToleranceMicros;
+    private final AtomicLong throttledRequests = new AtomicLong();
+
+    public SharedTokenBucketRateLimiter(Path stateFile, int requestsPerInterval, Duration interval) {
+        this.capacity = requestsPerInterval;
+        this.emissionIntervalMicros = Math.max(1, interval.toNanos() / 1_000 / requestsPerInterval);
+        this.burstToleranceMicros = interval.toNanos() / 1_000 - emissionIntervalMicros;
+        this.state = map(stateFile);
+    }
+
+    /**
+     * State file for an API token; the token itself is only stored as a hash
+     */
+    public static Path stateFile(Path directory, TrelloCredentials credentials) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(credentials.token().getBytes(StandardCharsets.UTF_8));
+            return directory.resolve("trello-rate-limit-" + HexFormat.of().formatHex(digest, 0, 8) + ".bin");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void acquire() {
+        boolean throttled = false;
+        while (true) {
+            long now = nowMicros();
+            long arrival = (long) LONG_VIEW.getVolatile(state, STATE_OFFSET);
+            long scheduled = Math.max(arrival, now);
+            long waitMicros = scheduled - now - burstToleranceMicros;
+            if (waitMicros <= 0) {
+                if (LONG_VIEW.compareAndSet(state, STATE_OFFSET, arrival, scheduled + emissionIntervalMicros)) {
+                    return;
+                }
+                continue;
+            }
+
+            if (!throttled) {
+                throttled = true;
+                throttledRequests.incrementAndGet();
+            }
+            TokenBucketRateLimiter.sleep(TimeUnit.MICROSECONDS.toNanos(waitMicros));
+        }
+    }
+
+    @Override
+    public void onResponse(int statusCode, HttpHeaders headers) {
+        long now = nowMicros();
+
+        var remaining = TokenBucketRateLimiter.parseLong(headers.firstValue(TokenBucketRateLimiter.REMAINING_HEADER).orElse(null));
+        if (remaining.isPresent()) {
+            // At most `remaining` requests may pass before the schedule catches up with now
+            postpone(now + burstToleranceMicros - (remaining.getAsLong() - 1) * emissionIntervalMicros);
+        }
+
+        if (statusCode == 429) {
+            long pauseMicros = headers.firstValue(TokenBucketRateLimiter.RETRY_AFTER_HEADER)
+                    .map(value -> TimeUnit.NANOSECONDS.toMicros(TokenBucketRateLimiter.parseRetryAfter(value)))
+                    .orElse(emissionIntervalMicros);
+            postpone(now + pauseMicros + burstToleranceMicros);
+        }
+    }
+
+    @Override
+    public long availablePermits() {
+        long now = nowMicros();
+        long scheduled = Math.max((long) LONG_VIEW.getVolatile(state, STATE_OFFSET), now);
+        long available = (burstToleranceMicros - (scheduled - now)) / emissionIntervalMicros + 1;
+        return Math.max(0, Math.min(capacity, available));
+    }
+
+    public long getThrottledRequests() {
+        return throttledRequests.get();
+    }
+
+    private void postpone(long arrival) {
+        while (true) {
+            long current = (long) LONG_VIEW.getVolatile(state, STATE_OFFSET);
+            if (current >= arrival || LONG_VIEW.compareAndSet(state, STATE_OFFSET, current, arrival)) {
+                return;
+            }
+        }
+    }
+
+    private static long nowMicros() {
+        // Wall clock, because the schedule is compared across processes
+        return System.currentTimeMillis() * 1_000;
+    }
+
+    private static MappedByteBuffer map(Path stateFile) {
+        try {
+            Files.createDirectories(stateFile.getParent());
+            try (var channel = FileChannel.open(stateFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map rate limit state file " + stateFile, e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package base;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs the call,
+ * callers arriving while it is in flight wait for and share its result or failure.
+ * Nothing is kept once the call completes, so later callers always start a new one.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    public V run(K key, Supplier<V> call) {
+        var future = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            shared.incrementAndGet();
+            return join(existing);
+        }
+
+        calls.incrementAndGet();
+        try {
+            var value = call.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Detaches the in-flight call of a key, so callers arriving after a local change do not share a result that predates it
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getShared() {
+        return shared.get();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
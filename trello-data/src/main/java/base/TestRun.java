@@ -0,0 +1,113 @@
+package base;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Identifies the current test run. With trelloSettings.cleanup.runScoped enabled the factories stamp the run tag
+ * into the description of every board and card, so a whole run can be found and torn down by querying for the tag
+ * instead of tracking each entity. Boards and cards created with the tag get it back whenever an update would
+ * overwrite it. Without run-scoped cleanup descriptions are left exactly as the tests set them.
+ * The identifier is the base36 start time plus two random characters, or the trello.runId system property /
+ * TRELLO_RUN_ID environment variable when a CI job wants to share one run across JVMs.
+ */
+public final class TestRun {
+
+    // A single word, so Trello search matches it as one term
+    public static final String TAG_PREFIX = "tdrun";
+
+    private static final Pattern TAG_PATTERN = Pattern.compile(TAG_PREFIX + "([0-9a-z]+)");
+    private static final TestRun CURRENT = new TestRun(resolveId(), TrelloSettings.current().getCleanup().isRunScoped());
+
+    private final String id;
+    // Whether entities are tagged at all, only needed for run-scoped cleanup
+    private final boolean tagging;
+    // Entities created with the tag of this run
+    private final Set<String> tagged = ConcurrentHashMap.newKeySet();
+
+    TestRun(String id) {
+        this(id, true);
+    }
+
+    TestRun(String id, boolean tagging) {
+        this.id = id;
+        this.tagging = tagging;
+    }
+
+    public static TestRun current() {
+        return CURRENT;
+    }
+
+    private static String resolveId() {
+        var configured = System.getProperty("trello.runId", System.getenv("TRELLO_RUN_ID"));
+        if (configured != null && !configured.isBlank()) {
+            return configured.toLowerCase().replaceAll("[^0-9a-z]", "");
+        }
+        return Long.toString(System.currentTimeMillis(), 36) + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36), 36);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTag() {
+        return tagOf(id);
+    }
+
+    public static String tagOf(String runId) {
+        return TAG_PREFIX + runId;
+    }
+
+    /**
+     * Appends the run tag to a description
+     */
+    public String stamp(String description) {
+        return description == null || description.isEmpty() ? getTag() : description + " " + getTag();
+    }
+
+    public boolean isTagging() {
+        return tagging;
+    }
+
+    /**
+     * Stamps a description of a new entity when this run tags its entities, otherwise returns it unchanged
+     */
+    public String tag(String description) {
+        return tagging ? stamp(description) : description;
+    }
+
+    /**
+     * Remembers a created entity whose description carries the tag of this run
+     */
+    public void created(String entityId, String description) {
+        if (tagging && entityId != null && isTagged(description)) {
+            tagged.add(entityId);
+        }
+    }
+
+    /**
+     * Returns the description to save for an entity, with the tag appended again
+     * when the entity was created with it and the new description dropped it
+     */
+    public String restamp(String entityId, String description) {
+        return entityId != null && tagged.contains(entityId) && !isTagged(description) ? stamp(description) : description;
+    }
+
+    private boolean isTagged(String description) {
+        return runIdOf(description).filter(id::equals).isPresent();
+    }
+
+    /**
+     * Extracts the run identifier from a stamped description
+     */
+    public static Optional<String> runIdOf(String description) {
+        if (description == null) {
+            return Optional.empty();
+        }
+        var matcher = TAG_PATTERN.matcher(description);
+        return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+}
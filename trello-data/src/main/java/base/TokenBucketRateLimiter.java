@@ -0,0 +1,134 @@
+package base;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token bucket. Permits refill continuously, so requests are paced evenly over the interval
+ * instead of being sent in bursts that end in 429 responses. The bucket also follows the budget reported
+ * by Trello's x-rate-limit-* headers and pauses completely while a Retry-After is pending.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    static final String REMAINING_HEADER = "x-rate-limit-api-token-remaining";
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final long capacity;
+    private final double permitsPerNano;
+    private final AtomicLong throttledRequests = new AtomicLong();
+
+    private double permits;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    public TokenBucketRateLimiter(int requestsPerInterval, Duration interval) {
+        this.capacity = requestsPerInterval;
+        this.permitsPerNano = (double) requestsPerInterval / interval.toNanos();
+        this.permits = requestsPerInterval;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    @Override
+    public void acquire() {
+        boolean throttled = false;
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                refill(now);
+                if (now >= pausedUntilNanos && permits >= 1) {
+                    permits -= 1;
+                    return;
+                }
+                waitNanos = Math.max(pausedUntilNanos - now, (long) Math.ceil((1 - permits) / permitsPerNano));
+            }
+
+            if (!throttled) {
+                throttled = true;
+                throttledRequests.incrementAndGet();
+            }
+            sleep(waitNanos);
+        }
+    }
+
+    @Override
+    public synchronized void onResponse(int statusCode, HttpHeaders headers) {
+        long now = System.nanoTime();
+        refill(now);
+
+        var remaining = parseLong(headers.firstValue(REMAINING_HEADER).orElse(null));
+        if (remaining.isPresent()) {
+            permits = Math.min(permits, remaining.getAsLong());
+        }
+
+        if (statusCode == 429) {
+            permits = 0;
+            long pauseNanos = headers.firstValue(RETRY_AFTER_HEADER)
+                    .map(TokenBucketRateLimiter::parseRetryAfter)
+                    .orElse((long) Math.ceil(1 / permitsPerNano));
+            pausedUntilNanos = Math.max(pausedUntilNanos, now + pauseNanos);
+        }
+    }
+
+    @Override
+    public synchronized long availablePermits() {
+        long now = System.nanoTime();
+        refill(now);
+        return now < pausedUntilNanos ? 0 : (long) permits;
+    }
+
+    /**
+     * Number of requests that had to wait for a permit so far
+     */
+    public long getThrottledRequests() {
+        return throttledRequests.get();
+    }
+
+    private void refill(long now) {
+        permits = Math.min(capacity, permits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+
+    static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TrelloApiException("Interrupted while waiting for the rate limit", e);
+        }
+    }
+
+    static OptionalLong parseLong(String value) {
+        if (value == null) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Retry-After is either a number of seconds or an HTTP date
+     */
+    static long parseRetryAfter(String value) {
+        var seconds = parseLong(value);
+        if (seconds.isPresent()) {
+            return TimeUnit.SECONDS.toNanos(seconds.getAsLong());
+        }
+        try {
+            var retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(), retryAt).toNanos());
+        } catch (DateTimeParseException e) {
+            return TimeUnit.SECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package base;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+
+/**
+ * Thrown when the Trello API answers with an error status
+ */
+public class TrelloApiException extends RuntimeException {
+
+    private final int statusCode;
+
+    public TrelloApiException(int statusCode, String message) {
+        super("Trello API responded with " + statusCode + ": " + message);
+        this.statusCode = statusCode;
+    }
+
+    public TrelloApiException(String message, Throwable cause) {
+        this(-1, message, cause);
+    }
+
+    private TrelloApiException(int statusCode, String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Wraps a failure of the generic HTTP repository. Bellatrix does not expose the HTTP status of a failed call,
+     * so the status is only known for timeouts, which are reported as a gateway timeout (504).
+     */
+    public static TrelloApiException wrap(RuntimeException failure) {
+        if (failure instanceof TrelloApiException apiException) {
+            return apiException;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof TrelloApiException apiException) {
+                return new TrelloApiException(apiException.getStatusCode(), failure.getMessage(), failure);
+            }
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException) {
+                return new TrelloApiException(504, "Request timed out: " + failure.getMessage(), failure);
+            }
+        }
+        return new TrelloApiException(-1, failure.getMessage(), failure);
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
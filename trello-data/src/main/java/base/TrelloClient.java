@@ -0,0 +1,157 @@
+package base;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * HTTP client for the Trello endpoints that go beyond the generic CRUD operations of HttpRepository
+ * (nested resources, batch reads, board copies...). The base URL comes from the same dataSettings.httpSettings
+ * section the repositories use, credentials from the {@link CredentialPool}, and responses are consumed as a stream.
+ */
+public class TrelloClient {
+
+    private static volatile TrelloClient instance;
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+
+    public TrelloClient(String baseUrl) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public static TrelloClient getInstance() {
+        if (instance == null) {
+            synchronized (TrelloClient.class) {
+                if (instance == null) {
+                    var baseUrl = TrelloCredentials.httpSettingsTree().get("baseUrl").getAsString();
+                    instance = new TrelloClient(baseUrl);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public <R> R get(String path, Map<String, String> query, ResponseReader<R> responseReader) {
+        return send("GET", path, query, null, responseReader);
+    }
+
+    public <R> R post(String path, Map<String, String> query, ResponseReader<R> responseReader) {
+        return send("POST", path, query, null, responseReader);
+    }
+
+    public <R> R put(String path, Map<String, String> query, String jsonBody, ResponseReader<R> responseReader) {
+        return send("PUT", path, query, jsonBody, responseReader);
+    }
+
+    public void delete(String path) {
+        send("DELETE", path, Map.of(), null, reader -> null);
+    }
+
+    /**
+     * Sends a request with the credentials active on the current thread, see {@link CredentialPool}
+     */
+    public <R> R send(String method, String path, Map<String, String> query, String jsonBody, ResponseReader<R> responseReader) {
+        return send(method, path, query, Map.of(), jsonBody, (statusCode, headers, body) ->
+                responseReader.read(new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Sends a request with additional headers and hands the raw response to the handler.
+     * Error statuses still raise a {@link TrelloApiException}, 429 responses are retried.
+     */
+    public <R> R send(String method, String path, Map<String, String> query, Map<String, String> headers,
+                      String jsonBody, ResponseHandler<R> responseHandler) {
+        var credentials = CredentialPool.getInstance().active();
+        var requestBuilder = HttpRequest.newBuilder(buildUri(path, query, credentials))
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .method(method, jsonBody == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(jsonBody, StandardCharsets.UTF_8));
+        headers.forEach(requestBuilder::header);
+        var request = requestBuilder.build();
+
+        var rateLimiter = RateLimiters.forCredentials(credentials);
+        var maxRetries = TrelloSettings.current().getRateLimit().getMaxRetries();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                rateLimiter.acquire();
+                var response = sendInConcurrencySlot(request);
+                rateLimiter.onResponse(response.statusCode(), response.headers());
+
+                try (InputStream body = response.body()) {
+                    if (response.statusCode() == 429 && attempt < maxRetries) {
+                        // The limiter is paused for Retry-After, the next acquire waits it out
+                        continue;
+                    }
+                    if (response.statusCode() >= 400) {
+                        throw new TrelloApiException(response.statusCode(), new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+                    return responseHandler.handle(response.statusCode(), response.headers(), body);
+                }
+            }
+        } catch (IOException e) {
+            throw new TrelloApiException(method + " " + path + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TrelloApiException(method + " " + path + " was interrupted", e);
+        }
+    }
+
+    private HttpResponse<InputStream> sendInConcurrencySlot(HttpRequest request) throws IOException, InterruptedException {
+        var concurrencyLimiter = AdaptiveConcurrencyLimiter.getInstance();
+        concurrencyLimiter.acquire();
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            overloaded = AdaptiveConcurrencyLimiter.isOverload(response.statusCode());
+            return response;
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    private URI buildUri(String path, Map<String, String> query, TrelloCredentials credentials) {
+        var uri = new StringBuilder(baseUrl).append('/').append(path)
+                .append("?key=").append(encode(credentials.key()))
+                .append("&token=").append(encode(credentials.token()));
+        query.forEach((name, value) -> uri.append('&').append(encode(name)).append('=').append(encode(value)));
+        return URI.create(uri.toString());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Consumes a streamed JSON response
+     */
+    @FunctionalInterface
+    public interface ResponseReader<R> {
+        R read(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Consumes a response together with its status and headers
+     */
+    @FunctionalInterface
+    public interface ResponseHandler<R> {
+        R handle(int statusCode, HttpHeaders headers, InputStream body) throws IOException;
+    }
+}
@@ -0,0 +1,53 @@
+package base;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import solutions.bellatrix.core.configuration.ConfigurationService;
+import solutions.bellatrix.data.configuration.DataSettings;
+
+import java.util.regex.Pattern;
+
+/**
+ * Trello API key/token pair
+ */
+public record TrelloCredentials(String key, String token) {
+
+    private static final Pattern ENVIRONMENT_PLACEHOLDER = Pattern.compile("\\{env_(.+)}");
+
+    /**
+     * Reads the credentials of the first QueryParameters authentication option in dataSettings.httpSettings
+     */
+    public static TrelloCredentials fromSettings() {
+        var options = httpSettingsTree().getAsJsonObject("authentication").getAsJsonArray("options");
+        var option = options.get(0).getAsJsonObject();
+        return new TrelloCredentials(
+                resolve(option.get("key").getAsString()),
+                resolve(option.get("token").getAsString()));
+    }
+
+    /**
+     * Returns the configured dataSettings.httpSettings section as a JSON tree
+     */
+    static JsonObject httpSettingsTree() {
+        var httpSettings = ConfigurationService.get(DataSettings.class).getHttpSettings();
+        return new Gson().toJsonTree(httpSettings).getAsJsonObject();
+    }
+
+    /**
+     * Resolves {env_name} placeholders that have not been substituted by the configuration service
+     */
+    static String resolve(String value) {
+        var matcher = ENVIRONMENT_PLACEHOLDER.matcher(value);
+        if (!matcher.matches()) {
+            return value;
+        }
+        var name = matcher.group(1);
+        var resolved = System.getenv(name);
+        return resolved != null ? resolved : System.getenv(name.toUpperCase());
+    }
+
+    @Override
+    public String toString() {
+        return "TrelloCredentials[key=" + key + "]";
+    }
+}
@@ -0,0 +1,29 @@
+package base;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+
+import java.util.ServiceLoader;
+
+/**
+ * Gson configuration shared by the repositories and the Trello client
+ */
+public final class TrelloJson {
+
+    public static final Gson GSON = configure(new GsonBuilder()).create();
+
+    private TrelloJson() {
+    }
+
+    /**
+     * Applies the Trello naming policy and registers the TypeAdapters generated for the entities,
+     * which take precedence over reflective binding
+     */
+    public static GsonBuilder configure(GsonBuilder builder) {
+        ServiceLoader.load(TypeAdapterFactory.class, TrelloJson.class.getClassLoader())
+                .forEach(builder::registerTypeAdapterFactory);
+        return builder.setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES);
+    }
+}
@@ -0,0 +1,112 @@
+package base;
+
+import solutions.bellatrix.data.http.infrastructure.HttpEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Unit of work over the Trello repositories. Entities registered with the session are mutated locally
+ * and flushed on {@link #commit()} with at most one request per entity: new entities are created in
+ * {@link solutions.bellatrix.data.annotations.Dependency} order with all mutations made so far, attached
+ * entities send their changed fields in a single update, and deletions run children first.
+ * Closing a session without committing discards whatever is still buffered.
+ */
+public class TrelloSession implements AutoCloseable {
+
+    private final Set<HttpEntity<?, ?>> created = identitySet();
+    private final Set<HttpEntity<?, ?>> attached = identitySet();
+    private final Set<HttpEntity<?, ?>> deleted = identitySet();
+    private final int parallelism;
+
+    public TrelloSession() {
+        this(DependencyGraph.DEFAULT_PARALLELISM);
+    }
+
+    public TrelloSession(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Buffers the creation of an entity; its missing dependencies are created along with it
+     */
+    public synchronized <E extends HttpEntity<?, ?>> E create(E entity) {
+        if (entity.getIdentifier() != null) {
+            throw new IllegalArgumentException(entity.getClass().getSimpleName() + " " + entity.getIdentifier() + " already exists");
+        }
+        created.add(entity);
+        return entity;
+    }
+
+    /**
+     * Tracks an existing entity, so its changes are sent as one update on commit
+     */
+    public synchronized <E extends HttpEntity<?, ?>> E attach(E entity) {
+        if (entity.getIdentifier() == null) {
+            throw new IllegalArgumentException(entity.getClass().getSimpleName() + " has no identifier, create it instead");
+        }
+        attached.add(entity);
+        return entity;
+    }
+
+    /**
+     * Buffers the deletion of an entity. Deleting an entity created in this session just drops it.
+     */
+    public synchronized void delete(HttpEntity<?, ?> entity) {
+        if (created.remove(entity)) {
+            return;
+        }
+        attached.remove(entity);
+        deleted.add(entity);
+    }
+
+    public synchronized boolean isEmpty() {
+        return created.isEmpty() && attached.isEmpty() && deleted.isEmpty();
+    }
+
+    /**
+     * Flushes the buffered work: creates, then updates, then deletes.
+     * Created entities stay attached, so the session can be used for further changes.
+     */
+    public synchronized void commit() {
+        DependencyGraph.of(created).create(parallelism);
+
+        flush(new ArrayList<>(attached), HttpEntity::update);
+
+        var graph = DependencyGraph.of(deleted);
+        var levels = graph.getLevels();
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            var level = levels.get(i).stream().filter(deleted::contains).toList();
+            flush(level, HttpEntity::delete);
+        }
+
+        attached.addAll(created);
+        created.clear();
+        deleted.clear();
+    }
+
+    /**
+     * Discards buffered creates and deletes as well as the tracked entities
+     */
+    @Override
+    public synchronized void close() {
+        created.clear();
+        attached.clear();
+        deleted.clear();
+    }
+
+    private void flush(List<HttpEntity<?, ?>> entities, Consumer<HttpEntity<?, ?>> action) {
+        var failures = Parallel.forEach(entities, parallelism, action);
+        if (!failures.isEmpty()) {
+            throw failures.values().iterator().next();
+        }
+    }
+
+    private static Set<HttpEntity<?, ?>> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,112 @@
+package base;
+
+import lombok.Data;
+import solutions.bellatrix.core.configuration.ConfigurationService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tuning options of the Trello data layer, read from the trelloSettings section of testFrameworkSettings.
+ * Every option has a default, so the section is optional.
+ */
+@Data
+public class TrelloSettings {
+
+    private static volatile TrelloSettings current;
+
+    private RateLimitSettings rateLimit = new RateLimitSettings();
+    private ConcurrencySettings concurrency = new ConcurrencySettings();
+    private CleanupSettings cleanup = new CleanupSettings();
+    private CacheSettings cache = new CacheSettings();
+    private FixtureSettings fixtures = new FixtureSettings();
+    // Stream get/update responses into the passed entity instead of returning a new one
+    private boolean mergeResponses = true;
+    // Optional pool of key/token pairs; when empty the dataSettings authentication option is used
+    private List<CredentialSettings> credentials = new ArrayList<>();
+
+    public static TrelloSettings current() {
+        if (current == null) {
+            synchronized (TrelloSettings.class) {
+                if (current == null) {
+                    current = load();
+                }
+            }
+        }
+        return current;
+    }
+
+    private static TrelloSettings load() {
+        try {
+            var settings = ConfigurationService.get(TrelloSettings.class);
+            return settings != null ? settings : new TrelloSettings();
+        } catch (RuntimeException e) {
+            return new TrelloSettings();
+        }
+    }
+
+    @Data
+    public static class RateLimitSettings {
+        // Trello allows 100 requests per 10 seconds per token, stay slightly below it
+        private int requestsPerInterval = 90;
+        private long intervalMillis = 10_000;
+        private int maxRetries = 3;
+        // Share one budget between all JVMs on the host through a memory-mapped state file
+        private boolean shared = false;
+        private String sharedStateDirectory = System.getProperty("java.io.tmpdir");
+    }
+
+    @Data
+    public static class ConcurrencySettings {
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 32;
+        // Latency above the best observed latency times this factor counts as overload
+        private double latencyTolerance = 2.0;
+    }
+
+    @Data
+    public static class CacheSettings {
+        // Read-through cache in front of the repositories' get, see EntityCache
+        private boolean enabled = false;
+        private int maxEntries = 1000;
+        // Entries older than this are revalidated with If-None-Match
+        private long ttlMillis = 5_000;
+    }
+
+    @Data
+    public static class FixtureSettings {
+        // Ready-made boards BoardPool.shared() keeps warm for leasing
+        private int poolSize = 4;
+        // Boards of read-only fixtures reused across runs, see FixtureCache; kept in the user home so it survives reboots
+        private String cacheFile = System.getProperty("user.home") + "/.trello/fixture-cache.json";
+        private long cacheTtlHours = 168;
+    }
+
+    @Data
+    public static class CleanupSettings {
+        // Hand teardown over to the background DeferredCleanup queue instead of deleting synchronously
+        private boolean deferred = false;
+        private int workers = 2;
+        // Background deletions only run while more permits than this are left
+        private long reservedRequests = 20;
+        private long shutdownTimeoutMillis = 30_000;
+        // Record tracked entities in a crash-safe journal, so CleanupJournal.replay can delete what a killed run leaked
+        private boolean journal = true;
+        private String journalDirectory = System.getProperty("java.io.tmpdir") + "/trello-cleanup-journal";
+        private long journalSyncMillis = 100;
+        // Skip per-entity tracking and tear the whole run down by its tag once all tests finished, see RunScopedCleanup
+        private boolean runScoped = false;
+        // Orphaned board sweeping; no prefixes means the prefix of the default factory boards
+        private boolean sweepBeforeSuite = false;
+        private List<String> sweepNamePrefixes = new ArrayList<>();
+        private long sweepMinAgeMinutes = 60;
+        private int sweepParallelism = 8;
+    }
+
+    @Data
+    public static class CredentialSettings {
+        private String key;
+        private String token;
+    }
+}
@@ -1,14 +1,19 @@
 package board;
 
+import base.BaseTrelloRepository;
 import com.google.gson.annotations.SerializedName;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.SuperBuilder;
+import processor.GenerateTypeAdapter;
 import solutions.bellatrix.data.http.infrastructure.HttpEntity;
 
+import java.util.concurrent.CompletableFuture;
+
 @Data
 @SuperBuilder
 @EqualsAndHashCode(callSuper = true)
+@GenerateTypeAdapter
 public class Board extends HttpEntity<String, Board> {
     
     // Core identification fields
@@ -61,4 +66,32 @@ public class Board extends HttpEntity<String, Board> {
     public void setIdentifier(String id) {
         this.id = id;
     }
+
+    // Asynchronous operations
+    public CompletableFuture<Board> createAsync() {
+        return BaseTrelloRepository.of(Board.class).createAsync(this)
+                .thenApply(created -> {
+                    this.id = created.getId();
+                    return created;
+                });
+    }
+
+    public CompletableFuture<Board> getAsync() {
+        return BaseTrelloRepository.of(Board.class).getAsync(this);
+    }
+
+    public CompletableFuture<Board> updateAsync() {
+        return BaseTrelloRepository.of(Board.class).updateAsync(this);
+    }
+
+    public CompletableFuture<Void> deleteAsync() {
+        return BaseTrelloRepository.of(Board.class).deleteAsync(this);
+    }
+
+    /**
+     * Loads this board with all of its lists and cards in one request
+     */
+    public BoardGraph fetchGraph() {
+        return ((BoardRepository) BaseTrelloRepository.of(Board.class)).fetchGraph(id);
+    }
 }
@@ -0,0 +1,70 @@
+package board;
+
+import card.Card;
+import list.List;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fully linked Board -> List -> Card object graph.
+ * The transient {@code List.board} and {@code Card.list} back-references are wired on construction.
+ */
+public class BoardGraph {
+
+    private final Board board;
+    private final java.util.List<List> lists;
+    private final java.util.List<Card> cards;
+    private final Map<String, java.util.List<Card>> cardsByListId = new HashMap<>();
+
+    public BoardGraph(Board board, java.util.List<List> lists, java.util.List<Card> cards) {
+        this.board = board;
+        this.lists = Collections.unmodifiableList(lists);
+        this.cards = Collections.unmodifiableList(cards);
+
+        var listsById = new HashMap<String, List>();
+        for (List list : lists) {
+            list.setBoard(board);
+            listsById.put(list.getId(), list);
+        }
+        for (Card card : cards) {
+            var list = listsById.get(card.getIdList());
+            if (list != null) {
+                card.setList(list);
+            }
+            cardsByListId.computeIfAbsent(card.getIdList(), id -> new ArrayList<>()).add(card);
+        }
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public java.util.List<List> getLists() {
+        return lists;
+    }
+
+    public java.util.List<Card> getCards() {
+        return cards;
+    }
+
+    public java.util.List<Card> getCards(List list) {
+        return Collections.unmodifiableList(cardsByListId.getOrDefault(list.getId(), java.util.List.of()));
+    }
+
+    /**
+     * Returns the first list with the given name, or null
+     */
+    public List getList(String name) {
+        return lists.stream().filter(list -> name.equals(list.getName())).findFirst().orElse(null);
+    }
+
+    /**
+     * Returns the first card with the given name, or null
+     */
+    public Card getCard(String name) {
+        return cards.stream().filter(card -> name.equals(card.getName())).findFirst().orElse(null);
+    }
+}
@@ -1,20 +1,177 @@
 package board;
 
 import base.BaseTrelloRepository;
+import base.CredentialPool;
+import base.TestRun;
+import base.TrelloClient;
+import base.TrelloJson;
+import card.Card;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import list.List;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Repository for Board entities
  * Extends BaseTrelloRepository with board-specific path parameter
  */
 public class BoardRepository extends BaseTrelloRepository<Board> {
-    
+
+    private static final Map<String, String> GRAPH_QUERY = Map.of(
+            "fields", "all",
+            "lists", "all",
+            "list_fields", "all",
+            "cards", "all",
+            "card_fields", "all");
+
     public BoardRepository() {
         super(Board.class, "boards");
     }
 
+    @Override
+    public Board create(Board entity) {
+        var created = super.create(entity);
+        TestRun.current().created(created.getId(), created.getDescription());
+        return created;
+    }
+
+    /**
+     * Saves the board, keeping the run tag in its description
+     */
+    @Override
+    public Board update(Board entity) {
+        entity.setDescription(TestRun.current().restamp(entity.getId(), entity.getDescription()));
+        return super.update(entity);
+    }
+
+    @Override
+    protected Board updateFields(Board entity, long fieldMask) {
+        entity.setDescription(TestRun.current().restamp(entity.getId(), entity.getDescription()));
+        return super.updateFields(entity, fieldMask);
+    }
+
+    /**
+     * Closes the board, sending the closed flag only
+     */
     @Override
     public void delete(Board entity) {
         entity.setClosed(true);
-        super.update(entity);
+        updateFields(entity, fields().maskOf("closed"));
+        forget(entity.getIdentifier());
+    }
+
+    /**
+     * Saves the name and description of a board, sending these two fields only
+     */
+    public Board updateDetails(Board entity) {
+        return updateFields(entity, fields().maskOf("name", "desc"));
+    }
+
+    /**
+     * Loads a board together with all of its lists and cards using a single nested-resource request
+     */
+    public BoardGraph fetchGraph(String id) {
+        return CredentialPool.getInstance().callFor(id, () ->
+                TrelloClient.getInstance().get("boards/" + id, GRAPH_QUERY, BoardRepository::readGraph));
+    }
+
+    /**
+     * Creates a board laid out as described by the template and returns its identifier.
+     * Lists are created concurrently, the cards of each list in order. The calls go directly through
+     * the Trello client, so the board is not tracked for cleanup and can serve as a long-lived copy source.
+     * It is not tagged with the run either: template and fixture cache boards outlive the run's teardown.
+     */
+    public String createTemplateBoard(String name, BoardTemplate template) {
+        var client = TrelloClient.getInstance();
+        var credentialPool = CredentialPool.getInstance();
+        var owner = credentialPool.leastLoaded();
+        var boardId = credentialPool.callAs(owner, () ->
+                client.post("boards", Map.of("name", name, "defaultLists", "false"), BoardRepository::readId));
+        credentialPool.assign(boardId, owner);
+
+        var layouts = template.getLists();
+        var creations = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < layouts.size(); i++) {
+            var layout = layouts.get(i);
+            var position = String.valueOf(i + 1);
+            creations.add(CompletableFuture.runAsync(() -> credentialPool.callAs(owner, () -> {
+                var listId = client.post("lists", Map.of("name", layout.name(), "idBoard", boardId, "pos", position), BoardRepository::readId);
+                for (String cardName : layout.cardNames()) {
+                    client.post("cards", Map.of("name", cardName, "idList", listId), BoardRepository::readId);
+                }
+                return null;
+            }), asyncExecutor()));
+        }
+        CompletableFuture.allOf(creations.toArray(CompletableFuture[]::new)).join();
+
+        return boardId;
+    }
+
+    /**
+     * Copies a board together with its lists and cards through idBoardSource and returns the linked copy.
+     * The copy carries the run tag when the run tags its entities, as the source's description is not copied.
+     */
+    public BoardGraph copy(String sourceBoardId, String name) {
+        var query = new HashMap<>(Map.of("name", name, "idBoardSource", sourceBoardId, "keepFromSource", "cards"));
+        var description = TestRun.current().tag(null);
+        if (description != null) {
+            query.put("desc", description);
+        }
+        var credentialPool = CredentialPool.getInstance();
+        var copyId = credentialPool.callFor(sourceBoardId, () -> TrelloClient.getInstance().post("boards", query, BoardRepository::readId));
+        credentialPool.assign(copyId, credentialPool.ownerOf(sourceBoardId));
+        TestRun.current().created(copyId, description);
+        return fetchGraph(copyId);
+    }
+
+    /**
+     * Deletes a board permanently instead of closing it
+     */
+    public void deletePermanently(String id) {
+        var credentialPool = CredentialPool.getInstance();
+        credentialPool.callFor(id, () -> {
+            TrelloClient.getInstance().delete("boards/" + id);
+            return null;
+        });
+        forget(id);
+    }
+
+    private static String readId(JsonReader reader) {
+        return JsonParser.parseReader(reader).getAsJsonObject().get("id").getAsString();
+    }
+
+    private static BoardGraph readGraph(JsonReader reader) throws IOException {
+        var boardJson = new JsonObject();
+        var lists = new ArrayList<List>();
+        var cards = new ArrayList<Card>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            var name = reader.nextName();
+            switch (name) {
+                case "lists" -> readArray(reader, List.class, lists);
+                case "cards" -> readArray(reader, Card.class, cards);
+                default -> boardJson.add(name, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+
+        var board = TrelloJson.GSON.fromJson(boardJson, Board.class);
+        return new BoardGraph(board, lists, cards);
+    }
+
+    private static <E> void readArray(JsonReader reader, Class<E> elementType, java.util.List<E> target) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            E element = TrelloJson.GSON.fromJson(reader, elementType);
+            target.add(element);
+        }
+        reader.endArray();
     }
 }
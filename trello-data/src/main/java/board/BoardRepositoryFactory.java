@@ -1,14 +1,34 @@
 package board;
 
+import base.BaseTrelloRepository;
+import base.TestRun;
+import cleanup.CleanupEngine;
+import cleanup.CleanupJournal;
 import solutions.bellatrix.data.configuration.RepositoryProvider;
 import solutions.bellatrix.data.http.contracts.EntityFactory;
 import solutions.bellatrix.data.configuration.FactoryProvider;
 
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Factory for Board entities
  * Provides default state and repository management for Board operations
  */
 public class BoardRepositoryFactory implements EntityFactory<Board> {
+
+    // Default boards are named with this prefix followed by the creation millis, see OrphanedBoardSweeper
+    public static final String DEFAULT_NAME_PREFIX = "Default Test Board ";
+
+    // Templates and their source boards are shared by all factory instances
+    private static final Map<String, BoardTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    // Template board ids by template name, completed once the board is built
+    private static final Map<String, CompletableFuture<String>> TEMPLATE_BOARDS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean DISCARD_HOOK_REGISTERED = new AtomicBoolean();
     
     public BoardRepositoryFactory() {
     }
@@ -16,12 +36,118 @@ public class BoardRepositoryFactory implements EntityFactory<Board> {
     @Override
     public Board buildDefault() {
         return Board.builder()
-                .name("Default Test Board " + System.currentTimeMillis())
-                .description("This is a default test board created by BELLATRIX automation")
+                .name(DEFAULT_NAME_PREFIX + System.currentTimeMillis())
+                .description(TestRun.current().tag("This is a default test board created by BELLATRIX automation"))
                 .closed(false)
                 .pinned(false)
                 .starred(false)
                 .subscribed(false)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Registers a named board layout. Registering an identical layout again keeps the existing template board.
+     */
+    public void registerTemplate(String templateName, BoardTemplate template) {
+        var previous = TEMPLATES.put(templateName, template);
+        if (previous != null && !previous.getLists().equals(template.getLists())) {
+            deleteTemplateBoard(TEMPLATE_BOARDS.remove(templateName));
+        }
+    }
+
+    public BoardGraph createFromTemplate(String templateName) {
+        return createFromTemplate(templateName, buildDefault().getName());
+    }
+
+    /**
+     * Creates a board from a registered template. The template board is created on first use,
+     * every later call is a single board copy that brings the lists and cards along.
+     * The returned board is not tracked for cleanup automatically; template boards are deleted when the JVM exits.
+     */
+    public BoardGraph createFromTemplate(String templateName, String boardName) {
+        var template = TEMPLATES.get(templateName);
+        if (template == null) {
+            throw new IllegalArgumentException("No board template registered as '" + templateName + "'");
+        }
+
+        return repository().copy(templateBoardId(templateName, template), boardName);
+    }
+
+    /**
+     * Returns the template board, building it on first use. Concurrent callers wait for the one building it,
+     * outside of any map lock, so other templates are not held up.
+     */
+    private static String templateBoardId(String templateName, BoardTemplate template) {
+        var building = new CompletableFuture<String>();
+        var existing = TEMPLATE_BOARDS.putIfAbsent(templateName, building);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            // Named like default boards, so the orphaned board sweeper removes them if a run is killed
+            var boardId = repository().createTemplateBoard(
+                    DEFAULT_NAME_PREFIX + "Template " + templateName + " " + System.currentTimeMillis(), template);
+            registerForCleanup(boardId);
+            building.complete(boardId);
+            return boardId;
+        } catch (RuntimeException e) {
+            TEMPLATE_BOARDS.remove(templateName, building);
+            building.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Journals a template board and makes sure the template boards are deleted when the JVM exits
+     */
+    private static void registerForCleanup(String boardId) {
+        var journal = CleanupJournal.getInstance();
+        if (journal != null) {
+            journal.tracked(new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.BOARD, boardId, null, null));
+        }
+        if (DISCARD_HOOK_REGISTERED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(BoardRepositoryFactory::discardTemplates, "trello-template-boards-discard"));
+        }
+    }
+
+    /**
+     * Unregisters a template and permanently deletes its template board, if it was created
+     */
+    public static void discardTemplate(String templateName) {
+        TEMPLATES.remove(templateName);
+        deleteTemplateBoard(TEMPLATE_BOARDS.remove(templateName));
+    }
+
+    /**
+     * Permanently deletes all template boards created so far
+     */
+    public static void discardTemplates() {
+        for (String templateName : new ArrayList<>(TEMPLATE_BOARDS.keySet())) {
+            deleteTemplateBoard(TEMPLATE_BOARDS.remove(templateName));
+        }
+    }
+
+    /**
+     * Deletes a template board once it is built; a board whose build failed has nothing to delete
+     */
+    private static void deleteTemplateBoard(CompletableFuture<String> templateBoard) {
+        var boardId = templateBoard != null ? templateBoard.handle((id, failure) -> id).join() : null;
+        if (boardId == null) {
+            return;
+        }
+        repository().deletePermanently(boardId);
+        var journal = CleanupJournal.getInstance();
+        if (journal != null) {
+            journal.cleaned(boardId);
+        }
+    }
+
+    private static BoardRepository repository() {
+        return (BoardRepository) BaseTrelloRepository.of(Board.class);
+    }
+}
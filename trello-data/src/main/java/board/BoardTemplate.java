@@ -0,0 +1,66 @@
+package board;
+
+import card.Card;
+import list.List;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Describes a board layout (lists and the cards inside them) that can be registered
+ * in {@link BoardRepositoryFactory} and instantiated by copying a template board
+ */
+public class BoardTemplate {
+
+    private final java.util.List<ListLayout> lists;
+
+    private BoardTemplate(java.util.List<ListLayout> lists) {
+        this.lists = Collections.unmodifiableList(lists);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public java.util.List<ListLayout> getLists() {
+        return lists;
+    }
+
+    /**
+     * Describes the open lists of a board with the names of their open cards, in board order
+     */
+    public static BoardTemplate layoutOf(BoardGraph graph) {
+        var builder = builder();
+        for (List list : graph.getLists()) {
+            if (Boolean.TRUE.equals(list.getClosed())) {
+                continue;
+            }
+            var cardNames = graph.getCards(list).stream()
+                    .filter(card -> !Boolean.TRUE.equals(card.getClosed()))
+                    .map(Card::getName)
+                    .toArray(String[]::new);
+            builder.list(list.getName(), cardNames);
+        }
+        return builder.build();
+    }
+
+    /**
+     * A list of the layout together with the names of its cards, in board order
+     */
+    public record ListLayout(String name, java.util.List<String> cardNames) {
+    }
+
+    public static class Builder {
+        private final java.util.List<ListLayout> lists = new ArrayList<>();
+
+        public Builder list(String name, String... cardNames) {
+            lists.add(new ListLayout(name, java.util.List.copyOf(Arrays.asList(cardNames))));
+            return this;
+        }
+
+        public BoardTemplate build() {
+            return new BoardTemplate(new ArrayList<>(lists));
+        }
+    }
+}
@@ -3,16 +3,24 @@ package card;
 import lombok.Getter;
 import solutions.bellatrix.data.annotations.Dependency;
 import list.List;
+import base.BaseTrelloRepository;
+import base.NestedEntity;
 import com.google.gson.annotations.SerializedName;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.SuperBuilder;
+import processor.GenerateTypeAdapter;
 import solutions.bellatrix.data.http.infrastructure.HttpEntity;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
 @Data
 @SuperBuilder
 @EqualsAndHashCode(callSuper = true)
-public class Card extends HttpEntity<String, Card> {
+@GenerateTypeAdapter
+public class Card extends HttpEntity<String, Card> implements NestedEntity {
     // Core identification fields
     @Dependency(entityType = List.class)
     @Getter
@@ -71,4 +79,30 @@ public class Card extends HttpEntity<String, Card> {
             this.setIdList(list.getId());
         }
     }
+
+    @Override
+    public java.util.List<String> getParentIds() {
+        return Stream.of(idList, idBoard).filter(Objects::nonNull).toList();
+    }
+
+    // Asynchronous operations
+    public CompletableFuture<Card> createAsync() {
+        return BaseTrelloRepository.of(Card.class).createAsync(this)
+                .thenApply(created -> {
+                    this.id = created.getId();
+                    return created;
+                });
+    }
+
+    public CompletableFuture<Card> getAsync() {
+        return BaseTrelloRepository.of(Card.class).getAsync(this);
+    }
+
+    public CompletableFuture<Card> updateAsync() {
+        return BaseTrelloRepository.of(Card.class).updateAsync(this);
+    }
+
+    public CompletableFuture<Void> deleteAsync() {
+        return BaseTrelloRepository.of(Card.class).deleteAsync(this);
+    }
 }
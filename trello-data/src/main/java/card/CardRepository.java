@@ -1,6 +1,7 @@
 package card;
 
 import base.BaseTrelloRepository;
+import base.TestRun;
 
 /**
  * Repository for Card entities
@@ -11,4 +12,26 @@ public class CardRepository extends BaseTrelloRepository<Card> {
     public CardRepository() {
         super(Card.class, "cards");
     }
+
+    @Override
+    public Card create(Card entity) {
+        var created = super.create(entity);
+        TestRun.current().created(created.getId(), created.getDescription());
+        return created;
+    }
+
+    /**
+     * Saves the card, keeping the run tag in its description
+     */
+    @Override
+    public Card update(Card entity) {
+        entity.setDescription(TestRun.current().restamp(entity.getId(), entity.getDescription()));
+        return super.update(entity);
+    }
+
+    @Override
+    protected Card updateFields(Card entity, long fieldMask) {
+        entity.setDescription(TestRun.current().restamp(entity.getId(), entity.getDescription()));
+        return super.updateFields(entity, fieldMask);
+    }
 }
@@ -2,6 +2,7 @@ package card;
 
 import list.List;
 import list.ListRepository;
+import base.TestRun;
 import solutions.bellatrix.data.configuration.RepositoryProvider;
 import solutions.bellatrix.data.http.contracts.EntityFactory;
 import solutions.bellatrix.data.configuration.FactoryProvider;
@@ -19,7 +20,7 @@ public class CardRepositoryFactory implements EntityFactory<Card> {
     public Card buildDefault() {
         return Card.builder()
                 .name("Default Test Card " + System.currentTimeMillis())
-                .description("This is a default test card created by BELLATRIX automation")
+                .description(TestRun.current().tag("This is a default test card created by BELLATRIX automation"))
                 .closed(false)
                 .dueComplete(false)
                 .build();
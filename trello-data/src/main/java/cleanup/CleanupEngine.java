@@ -0,0 +1,179 @@
+package cleanup;
+
+import base.DependencyGraph;
+import base.Parallel;
+import board.Board;
+import card.Card;
+import list.List;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Deletes tracked test data with as few requests as possible.
+ * Closing a board hides every list and card on it and closing a list hides its cards, so tracked entities
+ * whose board or list is deleted as well are pruned. The remaining roots are independent of each other
+ * and are deleted concurrently.
+ */
+public class CleanupEngine {
+
+    private final Map<String, TrackedEntity> tracked = new LinkedHashMap<>();
+    private final int parallelism;
+
+    public CleanupEngine() {
+        this(DependencyGraph.DEFAULT_PARALLELISM);
+    }
+
+    public CleanupEngine(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public synchronized void trackBoard(String boardId) {
+        register(new TrackedEntity(EntityKind.BOARD, boardId, null, null));
+    }
+
+    public synchronized void trackList(String listId, String boardId) {
+        register(new TrackedEntity(EntityKind.LIST, listId, boardId, null));
+    }
+
+    public synchronized void trackCard(String cardId, String listId, String boardId) {
+        register(new TrackedEntity(EntityKind.CARD, cardId, boardId, listId));
+    }
+
+    public void track(Board board) {
+        trackBoard(board.getId());
+    }
+
+    public void track(List list) {
+        trackList(list.getId(), list.getIdBoard());
+    }
+
+    public void track(Card card) {
+        trackCard(card.getId(), card.getIdList(), card.getIdBoard());
+    }
+
+    /**
+     * Stops tracking an entity, e.g. after a test deleted it on its own
+     */
+    public synchronized void untrack(String id) {
+        if (tracked.remove(id) != null) {
+            journaled(journal -> journal.cleaned(id));
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return tracked.isEmpty();
+    }
+
+    /**
+     * Returns the tracked entities that still need their own delete request and stops tracking everything
+     */
+    public synchronized java.util.List<TrackedEntity> drainRoots() {
+        var roots = plan(tracked.values());
+        // Pruned entities go away with their root, which stays in the journal until it is deleted
+        Set<String> rootIds = new HashSet<>();
+        roots.forEach(root -> rootIds.add(root.id()));
+        journaled(journal -> tracked.keySet().stream().filter(id -> !rootIds.contains(id)).forEach(journal::cleaned));
+        tracked.clear();
+        return roots;
+    }
+
+    /**
+     * Deletes everything tracked so far
+     */
+    public CleanupReport cleanup() {
+        int trackedCount;
+        java.util.List<TrackedEntity> roots;
+        synchronized (this) {
+            trackedCount = tracked.size();
+            roots = drainRoots();
+        }
+        return delete(roots, trackedCount, parallelism);
+    }
+
+    /**
+     * Deletes already planned roots concurrently
+     */
+    public static CleanupReport delete(java.util.List<TrackedEntity> roots, int trackedCount, int parallelism) {
+        var failures = Parallel.forEach(roots, parallelism, TrackedEntity::delete);
+        var failuresById = new HashMap<String, RuntimeException>();
+        failures.forEach((entity, failure) -> failuresById.put(entity.id(), failure));
+        return new CleanupReport(trackedCount, roots.size() - failures.size(), trackedCount - roots.size(), failuresById);
+    }
+
+    /**
+     * Removes every entity whose board or list is deleted as well
+     */
+    static java.util.List<TrackedEntity> plan(Iterable<TrackedEntity> entities) {
+        Set<String> boardIds = new HashSet<>();
+        Set<String> listIds = new HashSet<>();
+        for (TrackedEntity entity : entities) {
+            switch (entity.kind()) {
+                case BOARD -> boardIds.add(entity.id());
+                case LIST -> listIds.add(entity.id());
+                default -> {
+                }
+            }
+        }
+
+        // A tracked list is either deleted itself or hidden with its board, its cards go with it either way
+        var roots = new ArrayList<TrackedEntity>();
+        for (TrackedEntity entity : entities) {
+            boolean covered = switch (entity.kind()) {
+                case BOARD -> false;
+                case LIST -> boardIds.contains(entity.boardId());
+                case CARD -> boardIds.contains(entity.boardId()) || listIds.contains(entity.listId());
+            };
+            if (!covered) {
+                roots.add(entity);
+            }
+        }
+        return roots;
+    }
+
+    private void register(TrackedEntity entity) {
+        if (entity.id() != null) {
+            tracked.put(entity.id(), entity);
+            journaled(journal -> journal.tracked(entity));
+        }
+    }
+
+    private static void journaled(Consumer<CleanupJournal> action) {
+        var journal = CleanupJournal.getInstance();
+        if (journal != null) {
+            action.accept(journal);
+        }
+    }
+
+    public enum EntityKind {
+        BOARD(id -> Board.builder().id(id).build().delete()),
+        LIST(id -> List.builder().id(id).build().delete()),
+        CARD(id -> Card.builder().id(id).build().delete());
+
+        private final Consumer<String> deleter;
+
+        EntityKind(Consumer<String> deleter) {
+            this.deleter = deleter;
+        }
+
+        public void delete(String id) {
+            deleter.accept(id);
+        }
+    }
+
+    /**
+     * A tracked entity together with the identifiers of the board and list containing it, when known
+     */
+    public record TrackedEntity(EntityKind kind, String id, String boardId, String listId) {
+
+        public void delete() {
+            kind.delete(id);
+            journaled(journal -> journal.cleaned(id));
+        }
+    }
+}
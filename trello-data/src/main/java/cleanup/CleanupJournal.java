@@ -0,0 +1,324 @@
+package cleanup;
+
+import base.DependencyGraph;
+import base.TrelloSettings;
+import board.Board;
+import board.BoardRepository;
+import card.Card;
+import card.CardRepository;
+import list.List;
+import list.ListRepository;
+import solutions.bellatrix.data.configuration.RepositoryProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only, memory-mapped journal of tracked and cleaned up entities, so test data outlives a killed JVM.
+ * Every process writes its own file of fixed-size records straight into the mapping, without allocating,
+ * while a background thread forces dirty pages to disk in batches. {@link #replay(Path, int)} deletes
+ * whatever the journals of dead processes left behind. A journal whose entities were all cleaned up is removed
+ * when the JVM exits, so only runs that actually leaked leave a file behind.
+ * <p>
+ * Record layout: op, kind, three id lengths, padding, then id, board id and list id in 24 ASCII bytes each.
+ * The op byte is written last, so a zero op marks the end of the journal.
+ */
+public final class CleanupJournal implements AutoCloseable {
+
+    static final int RECORD_SIZE = 80;
+    private static final int ID_SIZE = 24;
+    private static final int ID_OFFSET = 8;
+    private static final int BOARD_ID_OFFSET = ID_OFFSET + ID_SIZE;
+    private static final int LIST_ID_OFFSET = BOARD_ID_OFFSET + ID_SIZE;
+    private static final byte OP_TRACKED = 1;
+    private static final byte OP_CLEANED = 2;
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final String FILE_PREFIX = "trello-cleanup-";
+    private static final String FILE_SUFFIX = ".journal";
+
+    private static volatile CleanupJournal instance;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Duration syncInterval;
+    private MappedByteBuffer buffer;
+    private int position;
+    private volatile boolean dirty;
+    private volatile boolean closed;
+
+    CleanupJournal(Path file, int initialCapacity, Duration syncInterval) {
+        this.file = file;
+        this.syncInterval = syncInterval;
+        try {
+            Files.createDirectories(file.getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long capacity = Math.max(channel.size() / RECORD_SIZE, initialCapacity);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map cleanup journal " + file, e);
+        }
+        // A reused process id continues the journal that is already there
+        while (position + RECORD_SIZE <= buffer.capacity() && buffer.get(position) != 0) {
+            position += RECORD_SIZE;
+        }
+        Thread.ofVirtual().name("trello-cleanup-journal-sync").start(this::syncPeriodically);
+    }
+
+    /**
+     * Returns the journal of this process, or {@code null} when journaling is disabled
+     */
+    public static CleanupJournal getInstance() {
+        if (instance == null) {
+            synchronized (CleanupJournal.class) {
+                var settings = TrelloSettings.current().getCleanup();
+                if (instance == null && settings.isJournal()) {
+                    var journal = new CleanupJournal(journalFile(Path.of(settings.getJournalDirectory()), ProcessHandle.current().pid()),
+                            INITIAL_CAPACITY, Duration.ofMillis(settings.getJournalSyncMillis()));
+                    // Kept open while anything is pending, so deletions still running in other shutdown hooks are recorded as well
+                    Runtime.getRuntime().addShutdownHook(new Thread(journal::retire, "trello-cleanup-journal-retire"));
+                    instance = journal;
+                }
+            }
+        }
+        return instance;
+    }
+
+    static Path journalFile(Path directory, long pid) {
+        return directory.resolve(FILE_PREFIX + pid + FILE_SUFFIX);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void tracked(CleanupEngine.TrackedEntity entity) {
+        append(OP_TRACKED, entity.kind(), entity.id(), entity.boardId(), entity.listId());
+    }
+
+    public void cleaned(String id) {
+        append(OP_CLEANED, null, id, null, null);
+    }
+
+    private synchronized void append(byte op, CleanupEngine.EntityKind kind, String id, String boardId, String listId) {
+        if (closed) {
+            return;
+        }
+        if (position + RECORD_SIZE > buffer.capacity()) {
+            grow();
+        }
+        int record = position;
+        buffer.put(record + 1, kind == null ? 0 : (byte) kind.ordinal());
+        buffer.put(record + 2, writeId(record + ID_OFFSET, id));
+        buffer.put(record + 3, writeId(record + BOARD_ID_OFFSET, boardId));
+        buffer.put(record + 4, writeId(record + LIST_ID_OFFSET, listId));
+        buffer.put(record, op);
+        position += RECORD_SIZE;
+        dirty = true;
+    }
+
+    private byte writeId(int offset, String id) {
+        if (id == null) {
+            return 0;
+        }
+        if (id.length() > ID_SIZE) {
+            throw new IllegalArgumentException("Identifier too long for the cleanup journal: " + id);
+        }
+        for (int i = 0; i < id.length(); i++) {
+            buffer.put(offset + i, (byte) id.charAt(i));
+        }
+        return (byte) id.length();
+    }
+
+    private void grow() {
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) buffer.capacity() * 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow cleanup journal " + file, e);
+        }
+    }
+
+    /**
+     * Forces all appended records to disk
+     */
+    public synchronized void sync() {
+        if (dirty && !closed) {
+            dirty = false;
+            buffer.force();
+        }
+    }
+
+    /**
+     * Forces the journal to disk and, once every tracked entity is cleaned up, closes and removes it.
+     * Returns whether the journal was removed.
+     */
+    public synchronized boolean retire() {
+        sync();
+        if (closed || !pending(file).isEmpty()) {
+            return false;
+        }
+        close();
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Still mapped on some platforms, replay removes it with the other journals of dead processes
+            return false;
+        }
+    }
+
+    private void syncPeriodically() {
+        try {
+            while (!closed) {
+                Thread.sleep(syncInterval);
+                sync();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        sync();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close cleanup journal " + file, e);
+        }
+    }
+
+    /**
+     * Reads a journal and returns the entities that were tracked but neither cleaned up
+     * nor contained in a board or list that was cleaned up
+     */
+    static java.util.List<CleanupEngine.TrackedEntity> pending(Path journalFile) {
+        var tracked = new LinkedHashMap<String, CleanupEngine.TrackedEntity>();
+        Set<String> cleaned = new HashSet<>();
+        try (var channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            var records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            var kinds = CleanupEngine.EntityKind.values();
+            for (int record = 0; record + RECORD_SIZE <= records.capacity(); record += RECORD_SIZE) {
+                byte op = records.get(record);
+                if (op == 0) {
+                    break;
+                }
+                var id = readId(records, record + ID_OFFSET, records.get(record + 2));
+                if (op == OP_CLEANED) {
+                    tracked.remove(id);
+                    cleaned.add(id);
+                } else {
+                    cleaned.remove(id);
+                    tracked.put(id, new CleanupEngine.TrackedEntity(kinds[records.get(record + 1)], id,
+                            readId(records, record + BOARD_ID_OFFSET, records.get(record + 3)),
+                            readId(records, record + LIST_ID_OFFSET, records.get(record + 4))));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read cleanup journal " + journalFile, e);
+        }
+
+        var pending = new ArrayList<CleanupEngine.TrackedEntity>();
+        for (CleanupEngine.TrackedEntity entity : tracked.values()) {
+            if (!cleaned.contains(entity.boardId()) && !cleaned.contains(entity.listId())) {
+                pending.add(entity);
+            }
+        }
+        return pending;
+    }
+
+    private static String readId(MappedByteBuffer records, int offset, byte length) {
+        if (length == 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        records.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Deletes the leftovers recorded by journals of processes that are no longer running and removes those journals.
+     * Entities that fail to delete are carried over into the journal of the current process.
+     */
+    public static CleanupReport replay(Path directory, int parallelism) {
+        var journals = new ArrayList<Path>();
+        var entities = new ArrayList<CleanupEngine.TrackedEntity>();
+        try (var files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path journalFile : files) {
+                if (!isAbandoned(journalFile)) {
+                    continue;
+                }
+                journals.add(journalFile);
+                entities.addAll(pending(journalFile));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list cleanup journals in " + directory, e);
+        }
+
+        var roots = CleanupEngine.plan(entities);
+        var report = CleanupEngine.delete(roots, entities.size(), parallelism);
+
+        if (!report.isSuccessful()) {
+            var journal = getInstance();
+            if (journal == null) {
+                // Without a journal of our own the abandoned ones are the only record of the failed entities
+                return report;
+            }
+            Map<String, CleanupEngine.TrackedEntity> rootsById = new LinkedHashMap<>();
+            roots.forEach(root -> rootsById.put(root.id(), root));
+            report.failures().keySet().forEach(id -> journal.tracked(rootsById.get(id)));
+            journal.sync();
+        }
+        for (Path journalFile : journals) {
+            try {
+                Files.deleteIfExists(journalFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot remove cleanup journal " + journalFile, e);
+            }
+        }
+        return report;
+    }
+
+    private static boolean isAbandoned(Path journalFile) {
+        var name = journalFile.getFileName().toString();
+        long pid;
+        try {
+            pid = Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return pid != ProcessHandle.current().pid()
+                && ProcessHandle.of(pid).map(process -> !process.isAlive()).orElse(true);
+    }
+
+    /**
+     * Replays abandoned journals, from the given directory or the configured journal directory
+     */
+    public static void main(String[] args) {
+        RepositoryProvider.INSTANCE.register(Board.class, BoardRepository.class);
+        RepositoryProvider.INSTANCE.register(List.class, ListRepository.class);
+        RepositoryProvider.INSTANCE.register(Card.class, CardRepository.class);
+
+        var settings = TrelloSettings.current().getCleanup();
+        var directory = Path.of(args.length > 0 ? args[0] : settings.getJournalDirectory());
+        var report = replay(directory, DependencyGraph.DEFAULT_PARALLELISM);
+        System.out.printf("Replayed %d pending entities: %d deleted, %d pruned, %d failed%n",
+                report.tracked(), report.deleted(), report.pruned(), report.failures().size());
+        report.failures().forEach((id, failure) -> System.out.printf("  %s: %s%n", id, failure.getMessage()));
+    }
+}
@@ -0,0 +1,18 @@
+package cleanup;
+
+import java.util.Map;
+
+/**
+ * Outcome of a cleanup run
+ *
+ * @param tracked  number of tracked entities
+ * @param deleted  number of delete requests that succeeded
+ * @param pruned   number of entities covered by the deletion of their board or list
+ * @param failures failed deletions by entity identifier
+ */
+public record CleanupReport(int tracked, int deleted, int pruned, Map<String, RuntimeException> failures) {
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
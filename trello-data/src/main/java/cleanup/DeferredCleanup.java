@@ -0,0 +1,121 @@
+package cleanup;
+
+import base.BaseTrelloRepository;
+import base.TrelloSettings;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background cleanup queue, so tests do not pay for their teardown.
+ * Virtual-thread workers delete queued entities only while the rate budget has more than
+ * {@code reservedRequests} permits left, i.e. during idle gaps between test requests.
+ * A shutdown hook flushes whatever is left, ignoring the reserve, within a bounded deadline.
+ */
+public final class DeferredCleanup {
+
+    private static final Duration IDLE_POLL = Duration.ofMillis(200);
+    private static volatile DeferredCleanup instance;
+
+    private final LinkedBlockingQueue<CleanupEngine.TrackedEntity> queue = new LinkedBlockingQueue<>();
+    // Queued plus in-progress deletions; counted before queueing and released once a deletion ends,
+    // so an entity moving from the queue to a worker is never missed by flush
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final long reservedRequests;
+    private volatile boolean flushing;
+
+    private DeferredCleanup(int workers, long reservedRequests, Duration shutdownTimeout) {
+        this.reservedRequests = reservedRequests;
+        for (int i = 0; i < workers; i++) {
+            Thread.ofVirtual().name("trello-deferred-cleanup-" + i).start(this::drain);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(shutdownTimeout), "trello-deferred-cleanup-flush"));
+    }
+
+    public static DeferredCleanup getInstance() {
+        if (instance == null) {
+            synchronized (DeferredCleanup.class) {
+                if (instance == null) {
+                    var settings = TrelloSettings.current().getCleanup();
+                    instance = new DeferredCleanup(settings.getWorkers(), settings.getReservedRequests(),
+                            Duration.ofMillis(settings.getShutdownTimeoutMillis()));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Hands planned cleanup roots over to the background workers
+     */
+    public void submit(Collection<CleanupEngine.TrackedEntity> roots) {
+        pending.addAndGet(roots.size());
+        queue.addAll(roots);
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    public long getDeleted() {
+        return deleted.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Deletes everything queued, without waiting for idle budget, until the queue is empty or the timeout expires.
+     * Returns whether the queue was fully drained.
+     */
+    public boolean flush(Duration timeout) {
+        flushing = true;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (getPending() > 0) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            flushing = false;
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                awaitIdleBudget();
+                var entity = queue.take();
+                try {
+                    entity.delete();
+                    deleted.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitIdleBudget() throws InterruptedException {
+        while (!flushing && BaseTrelloRepository.availableRequests() <= reservedRequests) {
+            Thread.sleep(IDLE_POLL);
+        }
+    }
+}
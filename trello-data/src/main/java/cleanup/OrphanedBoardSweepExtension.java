@@ -0,0 +1,28 @@
+package cleanup;
+
+import base.TrelloSettings;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import solutions.bellatrix.core.utilities.Log;
+
+/**
+ * Sweeps orphaned test boards once per test run, before the first test class, when
+ * trelloSettings.cleanup.sweepBeforeSuite is enabled
+ */
+public class OrphanedBoardSweepExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(OrphanedBoardSweepExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!TrelloSettings.current().getCleanup().isSweepBeforeSuite()) {
+            return;
+        }
+        // The root store is shared by all test classes, so only the first one sweeps
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("sweep", key -> {
+            var progress = OrphanedBoardSweeper.fromSettings().sweep();
+            Log.info("Orphaned board sweep: %s", progress);
+            return progress;
+        });
+    }
+}
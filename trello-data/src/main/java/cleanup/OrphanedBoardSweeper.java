@@ -0,0 +1,234 @@
+package cleanup;
+
+import base.CredentialPool;
+import base.Parallel;
+import base.TrelloClient;
+import base.TrelloCredentials;
+import base.TrelloSettings;
+import board.BoardRepositoryFactory;
+import com.google.gson.stream.JsonReader;
+import fixture.FixtureCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Permanently deletes test boards that outlived the runs which created them.
+ * The boards of every pooled token are listed with their name only and matched by name prefix and age,
+ * the age being taken from the creation timestamp embedded in the Trello identifier.
+ * The minimum age keeps boards of suites that are still running out of reach. Each prefix can have its own minimum age,
+ * e.g. boards of the {@link FixtureCache} are only swept once they are past the cache TTL.
+ */
+public class OrphanedBoardSweeper {
+
+    private static final Map<String, String> BOARD_QUERY = Map.of(
+            "filter", "all",
+            "fields", "name");
+
+    // Name prefixes with the minimum age of the boards they match
+    private final Map<String, Duration> minAges;
+    private final int parallelism;
+
+    public OrphanedBoardSweeper(java.util.List<String> namePrefixes, Duration minAge, int parallelism) {
+        this(prefixRules(namePrefixes, minAge), parallelism);
+    }
+
+    private OrphanedBoardSweeper(Map<String, Duration> minAges, int parallelism) {
+        this.minAges = Collections.unmodifiableMap(minAges);
+        this.parallelism = parallelism;
+    }
+
+    private static Map<String, Duration> prefixRules(java.util.List<String> namePrefixes, Duration minAge) {
+        var minAges = new LinkedHashMap<String, Duration>();
+        namePrefixes.forEach(prefix -> minAges.put(prefix, minAge));
+        return minAges;
+    }
+
+    /**
+     * Sweeper for the boards created by {@link BoardRepositoryFactory#buildDefault()}, unless other prefixes are configured,
+     * and for fixture cache boards older than trelloSettings.fixtures.cacheTtlHours
+     */
+    public static OrphanedBoardSweeper fromSettings() {
+        return fromSettings(Duration.ofMinutes(TrelloSettings.current().getCleanup().getSweepMinAgeMinutes()));
+    }
+
+    private static OrphanedBoardSweeper fromSettings(Duration minAge) {
+        var settings = TrelloSettings.current().getCleanup();
+        var prefixes = settings.getSweepNamePrefixes().isEmpty()
+                ? java.util.List.of(BoardRepositoryFactory.DEFAULT_NAME_PREFIX)
+                : settings.getSweepNamePrefixes();
+        // Past the TTL a cached fixture is rebuilt by the next run anyway; the minimum age covers runs still using it
+        var fixtureMinAge = Duration.ofHours(TrelloSettings.current().getFixtures().getCacheTtlHours()).plus(minAge);
+        return new OrphanedBoardSweeper(prefixes, minAge, settings.getSweepParallelism())
+                .withPrefix(FixtureCache.NAME_PREFIX, fixtureMinAge);
+    }
+
+    /**
+     * Returns a sweeper that also deletes the boards with the given name prefix once they reach the given age
+     */
+    public OrphanedBoardSweeper withPrefix(String namePrefix, Duration minAge) {
+        var extended = new LinkedHashMap<>(minAges);
+        extended.put(namePrefix, minAge);
+        return new OrphanedBoardSweeper(extended, parallelism);
+    }
+
+    public Progress sweep() {
+        return sweep(progress -> {
+        });
+    }
+
+    /**
+     * Deletes all matching boards, reporting the progress after every deletion
+     */
+    public Progress sweep(Consumer<Progress> listener) {
+        var progress = new Progress();
+        var now = Instant.now();
+        var credentialPool = CredentialPool.getInstance();
+        Set<String> seen = Collections.synchronizedSet(new HashSet<>());
+
+        for (TrelloCredentials credentials : credentialPool.getCredentials()) {
+            var boardIds = credentialPool.callAs(credentials, () -> TrelloClient.getInstance()
+                    .get("members/me/boards", BOARD_QUERY, reader -> readMatches(reader, now, progress)));
+            boardIds.removeIf(id -> !seen.add(id));
+            progress.matched.addAndGet(boardIds.size());
+            listener.accept(progress);
+
+            Parallel.forEach(boardIds, parallelism, id -> {
+                try {
+                    credentialPool.callAs(credentials, () -> {
+                        TrelloClient.getInstance().delete("boards/" + id);
+                        return null;
+                    });
+                    progress.deleted.incrementAndGet();
+                } catch (RuntimeException e) {
+                    progress.failed.incrementAndGet();
+                }
+                listener.accept(progress);
+            });
+        }
+        return progress;
+    }
+
+    /**
+     * Streams the board listing and keeps only the identifiers of matching boards
+     */
+    private java.util.List<String> readMatches(JsonReader reader, Instant now, Progress progress) throws IOException {
+        var matches = new ArrayList<String>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String id = null;
+            String name = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = reader.nextString();
+                    case "name" -> name = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            progress.scanned.incrementAndGet();
+            if (matches(id, name, now)) {
+                matches.add(id);
+            }
+        }
+        reader.endArray();
+        return matches;
+    }
+
+    boolean matches(String id, String name, Instant now) {
+        if (id == null || name == null) {
+            return false;
+        }
+        var createdAt = createdAt(id);
+        if (createdAt == null) {
+            return false;
+        }
+        return minAges.entrySet().stream()
+                .anyMatch(rule -> name.startsWith(rule.getKey()) && !createdAt.plus(rule.getValue()).isAfter(now));
+    }
+
+    /**
+     * Trello identifiers are Mongo object ids, their first four bytes hold the creation time in seconds
+     */
+    static Instant createdAt(String id) {
+        if (id.length() < 8) {
+            return null;
+        }
+        try {
+            return Instant.ofEpochSecond(Long.parseLong(id.substring(0, 8), 16));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Live counters of a sweep
+     */
+    public static class Progress {
+
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong matched = new AtomicLong();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        public long getScanned() {
+            return scanned.get();
+        }
+
+        public long getMatched() {
+            return matched.get();
+        }
+
+        public long getDeleted() {
+            return deleted.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public Duration getElapsed() {
+            return Duration.ofNanos(System.nanoTime() - startNanos);
+        }
+
+        @Override
+        public String toString() {
+            var seconds = Math.max(getElapsed().toMillis(), 1) / 1000.0;
+            return String.format("scanned=%d matched=%d deleted=%d failed=%d (%.1f boards/s)",
+                    getScanned(), getMatched(), getDeleted(), getFailed(), getDeleted() / seconds);
+        }
+    }
+
+    /**
+     * Sweeps with the configured rule, optionally overridden by a minimum age in minutes and name prefixes
+     */
+    public static void main(String[] args) {
+        var sweeper = fromSettings();
+        if (args.length > 1) {
+            sweeper = new OrphanedBoardSweeper(java.util.List.of(args).subList(1, args.length),
+                    Duration.ofMinutes(Long.parseLong(args[0])), sweeper.parallelism);
+        } else if (args.length > 0) {
+            sweeper = fromSettings(Duration.ofMinutes(Long.parseLong(args[0])));
+        }
+
+        var lastReported = new AtomicLong();
+        var progress = sweeper.sweep(current -> {
+            long done = current.getDeleted() + current.getFailed();
+            if (done - lastReported.get() >= 50 && lastReported.compareAndSet(lastReported.get(), done)) {
+                System.out.println(current);
+            }
+        });
+        System.out.println("Sweep finished: " + progress);
+    }
+}
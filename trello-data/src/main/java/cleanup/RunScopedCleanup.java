@@ -0,0 +1,175 @@
+package cleanup;
+
+import base.CredentialPool;
+import base.DependencyGraph;
+import base.Parallel;
+import base.TestRun;
+import base.TrelloClient;
+import base.TrelloCredentials;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tears down everything a test run created by querying for its run tag, see {@link TestRun}.
+ * Tagged boards are found in the member's board listing and permanently deleted together with their content,
+ * tagged cards on other boards are found through paged card search and deleted one by one.
+ * Lists cannot be deleted in Trello and have no searchable description, so they are only removed with their board.
+ */
+public class RunScopedCleanup {
+
+    // Trello search returns at most 1000 cards per page and 100 pages
+    private static final int SEARCH_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_PAGES = 100;
+
+    private final String runId;
+    private final int parallelism;
+
+    public RunScopedCleanup(String runId, int parallelism) {
+        this.runId = runId;
+        this.parallelism = parallelism;
+    }
+
+    public static RunScopedCleanup forCurrentRun() {
+        return new RunScopedCleanup(TestRun.current().getId(), DependencyGraph.DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Deletes all tagged boards and the tagged cards outside of them with every pooled token
+     */
+    public CleanupReport teardown() {
+        var credentialPool = CredentialPool.getInstance();
+        var client = TrelloClient.getInstance();
+        Map<String, RuntimeException> failures = new HashMap<>();
+        int tracked = 0;
+        int deleted = 0;
+        int pruned = 0;
+        // Tokens of the same member see the same boards and cards
+        Set<String> seen = new HashSet<>();
+
+        for (TrelloCredentials credentials : credentialPool.getCredentials()) {
+            var boardIds = credentialPool.callAs(credentials, () -> client.get("members/me/boards",
+                    Map.of("filter", "all", "fields", "desc"), this::readTaggedBoards));
+            var cards = credentialPool.callAs(credentials, this::searchTaggedCards);
+
+            var roots = new ArrayList<String>();
+            for (String boardId : boardIds) {
+                if (seen.add(boardId)) {
+                    roots.add(boardId);
+                }
+            }
+            for (Map.Entry<String, String> card : cards.entrySet()) {
+                if (!seen.add(card.getKey())) {
+                    continue;
+                }
+                // Cards on tagged boards go away with their board
+                if (boardIds.contains(card.getValue())) {
+                    pruned++;
+                } else {
+                    roots.add(card.getKey());
+                }
+            }
+            tracked += roots.size();
+
+            var rootFailures = Parallel.forEach(roots, parallelism, id -> credentialPool.callAs(credentials, () -> {
+                client.delete((boardIds.contains(id) ? "boards/" : "cards/") + id);
+                return null;
+            }));
+            rootFailures.forEach(failures::put);
+            deleted += roots.size() - rootFailures.size();
+        }
+        return new CleanupReport(tracked + pruned, deleted, pruned, Map.copyOf(failures));
+    }
+
+    private Set<String> readTaggedBoards(JsonReader reader) throws IOException {
+        var boardIds = new HashSet<String>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            var fields = readFields(reader);
+            if (isTagged(fields.get("desc"))) {
+                boardIds.add(fields.get("id"));
+            }
+        }
+        reader.endArray();
+        return boardIds;
+    }
+
+    /**
+     * Returns the identifiers of the tagged cards mapped to their board
+     */
+    private Map<String, String> searchTaggedCards() {
+        var cards = new HashMap<String, String>();
+        for (int page = 0; page < MAX_SEARCH_PAGES; page++) {
+            var query = Map.of(
+                    "query", TestRun.tagOf(runId),
+                    "modelTypes", "cards",
+                    "card_fields", "desc,idBoard",
+                    "cards_limit", String.valueOf(SEARCH_PAGE_SIZE),
+                    "cards_page", String.valueOf(page),
+                    "partial", "false");
+            int found = TrelloClient.getInstance().get("search", query, reader -> readTaggedCards(reader, cards));
+            if (found < SEARCH_PAGE_SIZE) {
+                break;
+            }
+        }
+        return cards;
+    }
+
+    private int readTaggedCards(JsonReader reader, Map<String, String> cards) throws IOException {
+        int found = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("cards")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                var fields = readFields(reader);
+                found++;
+                // Search also matches similar words, only exact tags count
+                if (isTagged(fields.get("desc"))) {
+                    cards.put(fields.get("id"), fields.get("idBoard"));
+                }
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return found;
+    }
+
+    private boolean isTagged(String description) {
+        return TestRun.runIdOf(description).filter(runId::equals).isPresent();
+    }
+
+    private static Map<String, String> readFields(JsonReader reader) throws IOException {
+        var fields = new HashMap<String, String>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            var name = reader.nextName();
+            if (reader.peek() == JsonToken.STRING) {
+                fields.put(name, reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return fields;
+    }
+
+    /**
+     * Tears down the run given as argument, or the run of the trello.runId property
+     */
+    public static void main(String[] args) {
+        var cleanup = args.length > 0 ? new RunScopedCleanup(args[0], DependencyGraph.DEFAULT_PARALLELISM) : forCurrentRun();
+        var report = cleanup.teardown();
+        System.out.printf("Run %s: %d found, %d deleted, %d removed with their board, %d failed%n",
+                cleanup.runId, report.tracked(), report.deleted(), report.pruned(), report.failures().size());
+    }
+}
@@ -0,0 +1,29 @@
+package cleanup;
+
+import base.TestRun;
+import base.TrelloSettings;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import solutions.bellatrix.core.utilities.Log;
+
+/**
+ * Tears the current run down by its tag after the last test class, when trelloSettings.cleanup.runScoped is enabled
+ */
+public class RunScopedCleanupExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RunScopedCleanupExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!TrelloSettings.current().getCleanup().isRunScoped()) {
+            return;
+        }
+        // Resources of the root store are closed once the whole run has finished
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("teardown",
+                key -> (ExtensionContext.Store.CloseableResource) () -> {
+                    var report = RunScopedCleanup.forCurrentRun().teardown();
+                    Log.info("Run %s torn down: %d deleted, %d failed",
+                            TestRun.current().getId(), report.deleted(), report.failures().size());
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package fixture;
+
+import board.Board;
+import board.BoardGraph;
+
+/**
+ * A board borrowed from a {@link BoardPool}. The test owns the board until the lease is closed;
+ * the lists and cards of the graph are linked to the board as usual.
+ */
+public class BoardLease implements AutoCloseable {
+
+    private final BoardPool pool;
+    private final BoardPool.PooledBoard pooled;
+    private volatile boolean dirty;
+    private volatile boolean released;
+
+    BoardLease(BoardPool pool, BoardPool.PooledBoard pooled) {
+        this.pool = pool;
+        this.pooled = pooled;
+    }
+
+    public BoardGraph getGraph() {
+        return pooled.graph();
+    }
+
+    public Board getBoard() {
+        return pooled.graph().getBoard();
+    }
+
+    /**
+     * Marks the board as not reusable, so it is deleted on release without checking it
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Returns the board to the pool; closing a lease twice has no effect
+     */
+    @Override
+    public synchronized void close() {
+        if (!released) {
+            released = true;
+            pool.release(this);
+        }
+    }
+
+    BoardPool.PooledBoard getPooled() {
+        return pooled;
+    }
+}
@@ -0,0 +1,280 @@
+package fixture;
+
+import base.BaseTrelloRepository;
+import base.DependencyGraph;
+import base.EntityFields;
+import base.Parallel;
+import base.TrelloSettings;
+import board.Board;
+import board.BoardGraph;
+import board.BoardRepository;
+import board.BoardRepositoryFactory;
+import board.BoardTemplate;
+import card.Card;
+import list.List;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a number of ready-made boards warm and leases them to tests running in parallel.
+ * Boards are provisioned and refilled in the background. A returned board is checked against its original
+ * state with one request: if every field of its lists and cards and every other field of the board is unchanged and only
+ * the board's name or description changed it is reset and pooled again, otherwise it is deleted and replaced. When the pool runs dry the caller gets a board provisioned on the spot,
+ * so a lease never waits for another test.
+ */
+public class BoardPool implements AutoCloseable {
+
+    private static final AtomicInteger POOL_IDS = new AtomicInteger();
+    private static volatile BoardPool shared;
+
+    private final int size;
+    // Template the boards are copied from; null for Trello's default board with its default lists
+    private final String templateName;
+    private final BoardRepositoryFactory factory = new BoardRepositoryFactory();
+    private final BlockingQueue<PooledBoard> ready = new LinkedBlockingQueue<>();
+    // Every board of the pool that still exists, ready or leased
+    private final Set<String> owned = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger provisioning = new AtomicInteger();
+    // Refills and recycles still running, waited for on close
+    private final Set<CompletableFuture<Void>> background = ConcurrentHashMap.newKeySet();
+    private final AtomicLong warmLeases = new AtomicLong();
+    private final AtomicLong coldLeases = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private volatile boolean closed;
+
+    public BoardPool(int size) {
+        this(size, null);
+    }
+
+    public BoardPool(int size, BoardTemplate layout) {
+        this.size = size;
+        this.templateName = layout != null ? "Board pool " + POOL_IDS.incrementAndGet() : null;
+        if (layout != null) {
+            factory.registerTemplate(templateName, layout);
+        }
+        refill();
+    }
+
+    /**
+     * Returns the process-wide pool of default boards, sized by trelloSettings.fixtures.poolSize
+     * and emptied when the JVM exits
+     */
+    public static BoardPool shared() {
+        if (shared == null) {
+            synchronized (BoardPool.class) {
+                if (shared == null) {
+                    var pool = new BoardPool(TrelloSettings.current().getFixtures().getPoolSize());
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "trello-board-pool-close"));
+                    shared = pool;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Hands out a ready board, or provisions one when none is ready. Close the lease to return the board.
+     */
+    public BoardLease lease() {
+        if (closed) {
+            throw new IllegalStateException("The board pool is closed");
+        }
+        var pooled = ready.poll();
+        if (pooled != null) {
+            warmLeases.incrementAndGet();
+        } else {
+            coldLeases.incrementAndGet();
+            pooled = provision();
+        }
+        refill();
+        return new BoardLease(this, pooled);
+    }
+
+    /**
+     * Checks and pools a returned board again in the background
+     */
+    void release(BoardLease lease) {
+        runInBackground(() -> recycle(lease));
+    }
+
+    public int getAvailable() {
+        return ready.size();
+    }
+
+    public long getWarmLeases() {
+        return warmLeases.get();
+    }
+
+    public long getColdLeases() {
+        return coldLeases.get();
+    }
+
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    /**
+     * Permanently deletes every board of the pool, including the leased ones, and its template board.
+     * Refills and recycles still running are waited for up to trelloSettings.cleanup.shutdownTimeoutMillis,
+     * so the boards they provision are deleted as well.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        awaitBackground(TrelloSettings.current().getCleanup().getShutdownTimeoutMillis());
+        ready.clear();
+        Parallel.forEach(new ArrayList<>(owned), DependencyGraph.DEFAULT_PARALLELISM, this::discard);
+        if (templateName != null) {
+            BoardRepositoryFactory.discardTemplate(templateName);
+        }
+    }
+
+    private void recycle(BoardLease lease) {
+        var pooled = lease.getPooled();
+        if (!closed && !lease.isDirty() && ready.size() < size) {
+            try {
+                var graph = repository().fetchGraph(pooled.graph().getBoard().getId());
+                if (reset(pooled, graph)) {
+                    ready.add(new PooledBoard(graph, pooled.name(), pooled.description(), pooled.contents()));
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // A board that cannot be checked is not handed out again
+            }
+        }
+        discard(pooled.graph().getBoard().getId());
+        refill();
+    }
+
+    /**
+     * Restores the board's name and description; returns false when any other field of the board or any field
+     * of its lists or cards changed and the board has to go
+     */
+    private boolean reset(PooledBoard pooled, BoardGraph graph) {
+        var board = graph.getBoard();
+        if (!contentsOf(graph).equals(pooled.contents())) {
+            return false;
+        }
+        if (!Objects.equals(board.getName(), pooled.name()) || !Objects.equals(board.getDescription(), pooled.description())) {
+            board.setName(pooled.name());
+            board.setDescription(pooled.description());
+            repository().updateDetails(board);
+        }
+        return true;
+    }
+
+    private void refill() {
+        while (!closed) {
+            int inFlight = provisioning.get();
+            if (ready.size() + inFlight >= size) {
+                return;
+            }
+            if (provisioning.compareAndSet(inFlight, inFlight + 1)) {
+                runInBackground(() -> {
+                    try {
+                        var pooled = provision();
+                        if (closed) {
+                            discard(pooled.graph().getBoard().getId());
+                        } else {
+                            ready.add(pooled);
+                        }
+                    } finally {
+                        provisioning.decrementAndGet();
+                    }
+                });
+            }
+        }
+    }
+
+    private void runInBackground(Runnable task) {
+        var future = CompletableFuture.runAsync(task, BaseTrelloRepository.asyncExecutor());
+        background.add(future);
+        future.whenComplete((result, failure) -> background.remove(future));
+    }
+
+    private void awaitBackground(long timeoutMillis) {
+        try {
+            CompletableFuture.allOf(background.toArray(CompletableFuture[]::new)).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Boards of tasks that failed or are still running are left to the orphaned board sweeper
+        }
+    }
+
+    private PooledBoard provision() {
+        BoardGraph graph;
+        if (templateName != null) {
+            graph = factory.createFromTemplate(templateName);
+        } else {
+            Board board = factory.buildDefault().create();
+            graph = repository().fetchGraph(board.getId());
+        }
+        var board = graph.getBoard();
+        owned.add(board.getId());
+        return new PooledBoard(graph, board.getName(), board.getDescription(), contentsOf(graph));
+    }
+
+    /**
+     * Field values of the board other than its name and description, followed by the identifiers and field values
+     * of its lists and cards in board order
+     */
+    private static java.util.List<Object> contentsOf(BoardGraph graph) {
+        var boardFields = EntityFields.of(Board.class);
+        var listFields = EntityFields.of(List.class);
+        var cardFields = EntityFields.of(Card.class);
+        var contents = new ArrayList<Object>();
+
+        var boardValues = boardFields.snapshot(graph.getBoard());
+        long restored = boardFields.maskOf("name", "desc");
+        for (int i = 0; i < boardValues.length; i++) {
+            if ((restored & 1L << i) != 0) {
+                boardValues[i] = null;
+            }
+        }
+        contents.add(Arrays.asList(boardValues));
+        for (List list : graph.getLists()) {
+            contents.add(list.getId());
+            contents.add(Arrays.asList(listFields.snapshot(list)));
+            for (Card card : graph.getCards(list)) {
+                contents.add(card.getId());
+                contents.add(Arrays.asList(cardFields.snapshot(card)));
+            }
+        }
+        return contents;
+    }
+
+    private void discard(String boardId) {
+        if (!owned.remove(boardId)) {
+            return;
+        }
+        discarded.incrementAndGet();
+        try {
+            repository().deletePermanently(boardId);
+        } catch (RuntimeException e) {
+            // Left to the orphaned board sweeper, pooled boards carry the default name prefix and run tag
+        }
+    }
+
+    private static BoardRepository repository() {
+        return (BoardRepository) BaseTrelloRepository.of(Board.class);
+    }
+
+    /**
+     * A ready board together with the state it is reset to
+     */
+    record PooledBoard(BoardGraph graph, String name, String description, java.util.List<Object> contents) {
+    }
+}
@@ -0,0 +1,237 @@
+package fixture;
+
+import base.BaseTrelloRepository;
+import base.CredentialPool;
+import base.TrelloApiException;
+import base.TrelloCredentials;
+import base.TrelloJson;
+import base.TrelloSettings;
+import board.Board;
+import board.BoardGraph;
+import board.BoardRepository;
+import board.BoardTemplate;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only board fixtures that outlive the run creating them. A fixture's name and layout are hashed into
+ * a fingerprint, and the board built for it is recorded under that fingerprint in a local cache file.
+ * Later runs reuse the board once a single graph request confirms it is still open and laid out as described;
+ * boards older than the TTL are rebuilt and the old ones deleted. Cached boards are not tracked for cleanup, so tests
+ * must only read them; the orphaned board sweeper removes the ones left behind once they are past the TTL.
+ */
+public final class FixtureCache {
+
+    // Names of cached fixture boards, kept apart from the default board prefix and swept only past the TTL
+    public static final String NAME_PREFIX = "Fixture ";
+
+    // Part of every fingerprint, bump it when the way fixtures are built changes
+    private static final String FORMAT_VERSION = "1";
+    private static final Type ENTRIES_TYPE = new TypeToken<Map<String, CachedFixture>>() {
+    }.getType();
+
+    private static volatile FixtureCache instance;
+
+    private final Path file;
+    private final Path lockFile;
+    private final Duration ttl;
+    // Fixtures already resolved by this process, so each is validated once per run
+    private final Map<String, BoardGraph> resolved = new ConcurrentHashMap<>();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong built = new AtomicLong();
+
+    FixtureCache(Path file, Duration ttl) {
+        this.file = file;
+        this.lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        this.ttl = ttl;
+    }
+
+    public static FixtureCache getInstance() {
+        if (instance == null) {
+            synchronized (FixtureCache.class) {
+                if (instance == null) {
+                    var settings = TrelloSettings.current().getFixtures();
+                    instance = new FixtureCache(Path.of(settings.getCacheFile()), Duration.ofHours(settings.getCacheTtlHours()));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the board of a fixture, reusing the cached one when it is still valid.
+     * The graph is shared by every caller of this process and must not be modified.
+     */
+    public synchronized BoardGraph board(String name, BoardTemplate layout) {
+        var fingerprint = fingerprint(name, layout);
+        var graph = resolved.get(fingerprint);
+        if (graph == null) {
+            graph = resolve(fingerprint, name, layout);
+            resolved.put(fingerprint, graph);
+        }
+        return graph;
+    }
+
+    public long getReused() {
+        return reused.get();
+    }
+
+    public long getBuilt() {
+        return built.get();
+    }
+
+    /**
+     * Hashes everything a fixture is built from; any change to the name or layout yields a new fingerprint
+     */
+    static String fingerprint(String name, BoardTemplate layout) {
+        var description = TrelloJson.GSON.toJson(new Object[] {FORMAT_VERSION, name, layout.getLists()});
+        return sha256(description, 16);
+    }
+
+    private BoardGraph resolve(String fingerprint, String name, BoardTemplate layout) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create fixture cache directory for " + file, e);
+        }
+        // Parallel JVMs of the same run wait for each other instead of building the same fixture twice
+        try (var channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             var lock = channel.lock()) {
+            var entries = read(file);
+            var cached = entries.remove(fingerprint);
+            if (cached != null) {
+                var graph = validate(cached, layout);
+                if (graph != null) {
+                    reused.incrementAndGet();
+                    entries.put(fingerprint, cached);
+                    return graph;
+                }
+                discard(cached);
+            }
+            entries.values().removeIf(entry -> {
+                if (isExpired(entry)) {
+                    discard(entry);
+                    return true;
+                }
+                return false;
+            });
+
+            var repository = repository();
+            var boardId = repository.createTemplateBoard(NAME_PREFIX + name, layout);
+            var graph = repository.fetchGraph(boardId);
+            var owner = CredentialPool.getInstance().ownerOf(boardId);
+            entries.put(fingerprint, new CachedFixture(boardId, ownerFingerprint(owner), System.currentTimeMillis()));
+            write(file, entries);
+            built.incrementAndGet();
+            return graph;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot use fixture cache " + file, e);
+        }
+    }
+
+    /**
+     * Returns the board of a cached fixture, or null when it expired, was changed or is gone
+     */
+    private BoardGraph validate(CachedFixture cached, BoardTemplate layout) {
+        var owner = findOwner(cached);
+        if (owner == null || isExpired(cached)) {
+            return null;
+        }
+        CredentialPool.getInstance().assign(cached.boardId(), owner);
+        try {
+            var graph = repository().fetchGraph(cached.boardId());
+            boolean intact = !Boolean.TRUE.equals(graph.getBoard().getClosed())
+                    && BoardTemplate.layoutOf(graph).getLists().equals(layout.getLists());
+            return intact ? graph : null;
+        } catch (TrelloApiException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the board of a dropped entry, as long as it belongs to one of the configured credentials
+     */
+    private void discard(CachedFixture cached) {
+        var owner = findOwner(cached);
+        if (owner == null) {
+            return;
+        }
+        CredentialPool.getInstance().assign(cached.boardId(), owner);
+        try {
+            repository().deletePermanently(cached.boardId());
+        } catch (TrelloApiException e) {
+            // Already deleted
+        }
+    }
+
+    private boolean isExpired(CachedFixture cached) {
+        return System.currentTimeMillis() - cached.createdMillis() > ttl.toMillis();
+    }
+
+    private static TrelloCredentials findOwner(CachedFixture cached) {
+        return CredentialPool.getInstance().getCredentials().stream()
+                .filter(credentials -> ownerFingerprint(credentials).equals(cached.owner()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Identifies the credentials owning a board; the token itself is only stored as a hash
+     */
+    private static String ownerFingerprint(TrelloCredentials credentials) {
+        return sha256(credentials.token(), 8);
+    }
+
+    static Map<String, CachedFixture> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new HashMap<>();
+        }
+        Map<String, CachedFixture> entries = TrelloJson.GSON.fromJson(Files.readString(file), ENTRIES_TYPE);
+        return entries != null ? new HashMap<>(entries) : new HashMap<>();
+    }
+
+    static void write(Path file, Map<String, CachedFixture> entries) throws IOException {
+        // Replaced atomically, so a killed run never leaves a truncated cache behind
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temporary, TrelloJson.GSON.toJson(entries, ENTRIES_TYPE));
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String sha256(String value, int bytes) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BoardRepository repository() {
+        return (BoardRepository) BaseTrelloRepository.of(Board.class);
+    }
+
+    /**
+     * A fixture board as recorded in the cache file
+     */
+    record CachedFixture(String boardId, String owner, long createdMillis) {
+    }
+}
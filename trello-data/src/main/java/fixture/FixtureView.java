@@ -0,0 +1,142 @@
+package fixture;
+
+import base.BaseTrelloRepository;
+import base.EntityFields;
+import base.TrelloJson;
+import board.Board;
+import board.BoardGraph;
+import board.BoardRepository;
+import board.BoardRepositoryFactory;
+import card.Card;
+import list.List;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One test's handle on a {@link SharedFixture}. The graph holds local copies of the shared board, lists and cards,
+ * so local changes never leak into other views. Until the view is forked its entities point at the shared board;
+ * afterwards the same instances point at the view's private copy.
+ */
+public class FixtureView implements AutoCloseable {
+
+    private final SharedFixture fixture;
+    private final BoardGraph source;
+    private final java.util.List<Object> entities = new ArrayList<>();
+    private BoardGraph graph;
+    // Shared identifiers and their counterparts in the private copy, null until the view is forked
+    private Map<String, String> forkedIds;
+    private boolean closed;
+
+    FixtureView(SharedFixture fixture, BoardGraph source) {
+        this.fixture = fixture;
+        this.source = source;
+
+        var board = copyOf(source.getBoard());
+        var lists = source.getLists().stream().map(FixtureView::copyOf).toList();
+        var cards = source.getCards().stream().map(FixtureView::copyOf).toList();
+        this.graph = new BoardGraph(board, new ArrayList<>(lists), new ArrayList<>(cards));
+
+        entities.add(board);
+        entities.addAll(lists);
+        entities.addAll(cards);
+        entities.forEach(entity -> fixture.register(entity, this));
+    }
+
+    public synchronized BoardGraph getGraph() {
+        return graph;
+    }
+
+    public synchronized Board getBoard() {
+        return graph.getBoard();
+    }
+
+    public synchronized boolean isForked() {
+        return forkedIds != null;
+    }
+
+    /**
+     * Copies the shared board for this view on first use and re-points the view's entities to the copy.
+     * Returns the identifier mapping from the shared board to the copy.
+     */
+    synchronized Map<String, String> fork() {
+        if (closed) {
+            throw new IllegalStateException("The fixture view is closed");
+        }
+        if (forkedIds == null) {
+            var copy = repository().copy(source.getBoard().getId(), new BoardRepositoryFactory().buildDefault().getName());
+            forkedIds = matchIds(source, copy);
+
+            remap(graph.getBoard());
+            graph.getLists().forEach(this::remap);
+            graph.getCards().forEach(this::remap);
+            // Rebuilt so lookups by list identifier follow the copy
+            graph = new BoardGraph(graph.getBoard(), new ArrayList<>(graph.getLists()), new ArrayList<>(graph.getCards()));
+        }
+        return forkedIds;
+    }
+
+    /**
+     * Releases the view and deletes its private copy, if it was forked
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        fixture.unregister(this, entities);
+        if (forkedIds != null) {
+            repository().deletePermanently(forkedIds.get(source.getBoard().getId()));
+        }
+    }
+
+    /**
+     * Pairs the open lists and cards of the shared board with those of its copy, which keeps their order
+     */
+    private static Map<String, String> matchIds(BoardGraph source, BoardGraph copy) {
+        var ids = new HashMap<String, String>();
+        ids.put(source.getBoard().getId(), copy.getBoard().getId());
+
+        var sourceLists = openLists(source);
+        var copyLists = openLists(copy);
+        if (sourceLists.size() != copyLists.size()) {
+            throw new IllegalStateException("Copy " + copy.getBoard().getId() + " does not match shared board " + source.getBoard().getId());
+        }
+        for (int i = 0; i < sourceLists.size(); i++) {
+            ids.put(sourceLists.get(i).getId(), copyLists.get(i).getId());
+            var sourceCards = openCards(source, sourceLists.get(i));
+            var copyCards = openCards(copy, copyLists.get(i));
+            if (sourceCards.size() != copyCards.size()) {
+                throw new IllegalStateException("Copy " + copy.getBoard().getId() + " does not match shared board " + source.getBoard().getId());
+            }
+            for (int j = 0; j < sourceCards.size(); j++) {
+                ids.put(sourceCards.get(j).getId(), copyCards.get(j).getId());
+            }
+        }
+        return ids;
+    }
+
+    private static java.util.List<List> openLists(BoardGraph graph) {
+        return graph.getLists().stream().filter(list -> !Boolean.TRUE.equals(list.getClosed())).toList();
+    }
+
+    private static java.util.List<Card> openCards(BoardGraph graph, List list) {
+        return graph.getCards(list).stream().filter(card -> !Boolean.TRUE.equals(card.getClosed())).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> void remap(E entity) {
+        EntityFields.of((Class<E>) entity.getClass()).remap(entity, forkedIds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E copyOf(E entity) {
+        return (E) TrelloJson.GSON.fromJson(TrelloJson.GSON.toJson(entity), entity.getClass());
+    }
+
+    private static BoardRepository repository() {
+        return (BoardRepository) BaseTrelloRepository.of(Board.class);
+    }
+}
@@ -0,0 +1,156 @@
+package fixture;
+
+import base.BaseTrelloRepository;
+import base.EntityFields;
+import board.Board;
+import board.BoardGraph;
+import board.BoardRepository;
+import board.BoardRepositoryFactory;
+import board.BoardTemplate;
+import card.Card;
+import list.List;
+import solutions.bellatrix.data.http.infrastructure.HttpEntity;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A board shared by the tests of a class or suite that mostly read it. Every test works on its own
+ * {@link FixtureView}, whose entities are local copies pointing at the shared board, so reading costs no setup.
+ * The first write of a view that would reach the shared board (saving or deleting one of its entities, or creating
+ * an entity inside one of its lists) forks the view: the board is copied server-side with its lists and cards,
+ * the view's entities are re-pointed to the copy and the write goes there. Tests that only read never pay for a copy.
+ * Writes to the shared board outside of a view are rejected.
+ */
+public class SharedFixture implements AutoCloseable {
+
+    // Identifiers of the shared boards, lists and cards
+    private static final Map<String, SharedFixture> SHARED_IDS = new ConcurrentHashMap<>();
+    // View entities and the view they belong to, by instance since their field values change
+    private static final Map<Object, FixtureView> VIEWS = Collections.synchronizedMap(new IdentityHashMap<>());
+    // View last opened on a thread, for new entities that only refer to the shared board by identifier
+    private static final ThreadLocal<FixtureView> CURRENT_VIEW = new ThreadLocal<>();
+
+    static {
+        BaseTrelloRepository.addWriteInterceptor(SharedFixture::beforeWrite);
+    }
+
+    private final BoardGraph graph;
+    // Whether the shared board was built by this fixture and is deleted with it
+    private final boolean owned;
+    private final Set<FixtureView> views = ConcurrentHashMap.newKeySet();
+
+    private SharedFixture(BoardGraph graph, boolean owned) {
+        this.graph = graph;
+        this.owned = owned;
+        SHARED_IDS.put(graph.getBoard().getId(), this);
+        graph.getLists().forEach(list -> SHARED_IDS.put(list.getId(), this));
+        graph.getCards().forEach(card -> SHARED_IDS.put(card.getId(), this));
+    }
+
+    /**
+     * Builds a shared board laid out as described; it is deleted when the fixture is closed
+     */
+    public static SharedFixture create(BoardTemplate layout) {
+        var repository = repository();
+        var boardId = repository.createTemplateBoard(new BoardRepositoryFactory().buildDefault().getName(), layout);
+        return new SharedFixture(repository.fetchGraph(boardId), true);
+    }
+
+    /**
+     * Shares an existing board, e.g. one from the {@link FixtureCache}; the board is left in place on close
+     */
+    public static SharedFixture of(BoardGraph graph) {
+        return new SharedFixture(graph, false);
+    }
+
+    /**
+     * Opens a view for the current test. Close it when the test ends, which deletes its fork if it made one.
+     */
+    public FixtureView view() {
+        var view = new FixtureView(this, graph);
+        views.add(view);
+        CURRENT_VIEW.set(view);
+        return view;
+    }
+
+    public String getBoardId() {
+        return graph.getBoard().getId();
+    }
+
+    /**
+     * Closes the remaining views and deletes the shared board if this fixture built it
+     */
+    @Override
+    public void close() {
+        views.forEach(FixtureView::close);
+        SHARED_IDS.values().removeIf(fixture -> fixture == this);
+        if (owned) {
+            repository().deletePermanently(getBoardId());
+        }
+    }
+
+    void register(Object entity, FixtureView view) {
+        VIEWS.put(entity, view);
+    }
+
+    void unregister(FixtureView view, Iterable<Object> entities) {
+        views.remove(view);
+        entities.forEach(VIEWS::remove);
+        if (CURRENT_VIEW.get() == view) {
+            CURRENT_VIEW.remove();
+        }
+    }
+
+    /**
+     * Redirects a write that refers to a shared entity to the fork of the view it belongs to
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void beforeWrite(HttpEntity<String, ?> entity) {
+        EntityFields fields = EntityFields.of(entity.getClass());
+        var fixture = sharedFixtureOf(fields.stringValues(entity));
+        if (fixture == null) {
+            return;
+        }
+
+        var view = fixture.viewOf(entity);
+        if (view == null) {
+            throw new IllegalStateException(entity.getClass().getSimpleName() + " " + entity.getIdentifier()
+                    + " belongs to a shared fixture, change it through a FixtureView");
+        }
+        fields.remap(entity, view.fork());
+        if (sharedFixtureOf(fields.stringValues(entity)) != null) {
+            throw new IllegalStateException(entity.getClass().getSimpleName() + " " + entity.getIdentifier()
+                    + " refers to an archived entity of the shared fixture, which has no copy");
+        }
+    }
+
+    private static SharedFixture sharedFixtureOf(java.util.List<String> values) {
+        return values.stream().map(SHARED_IDS::get).filter(Objects::nonNull).findFirst().orElse(null);
+    }
+
+    /**
+     * The view an entity was handed out by, the view of its parent, or the view opened on this thread
+     */
+    private FixtureView viewOf(HttpEntity<String, ?> entity) {
+        var view = VIEWS.get(entity);
+        if (view == null && entity instanceof Card card && card.getList() != null) {
+            view = VIEWS.get(card.getList());
+        }
+        if (view == null && entity instanceof List list && list.getBoard() != null) {
+            view = VIEWS.get(list.getBoard());
+        }
+        if (view == null) {
+            view = CURRENT_VIEW.get();
+        }
+        return view != null && views.contains(view) ? view : null;
+    }
+
+    private static BoardRepository repository() {
+        return (BoardRepository) BaseTrelloRepository.of(Board.class);
+    }
+}
@@ -2,16 +2,24 @@ package list;
 
 import solutions.bellatrix.data.annotations.Dependency;
 import board.Board;
+import base.BaseTrelloRepository;
+import base.NestedEntity;
 import com.google.gson.annotations.SerializedName;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.SuperBuilder;
+import processor.GenerateTypeAdapter;
 import solutions.bellatrix.data.http.infrastructure.HttpEntity;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
 @Data
 @SuperBuilder
 @EqualsAndHashCode(callSuper = true)
-public class List extends HttpEntity<String, List> {
+@GenerateTypeAdapter
+public class List extends HttpEntity<String, List> implements NestedEntity {
     
     // Core identification fields
 
@@ -76,4 +84,30 @@ public class List extends HttpEntity<String, List> {
             this.setIdBoard(board.getId());
         }
     }
+
+    @Override
+    public java.util.List<String> getParentIds() {
+        return Stream.of(idBoard).filter(Objects::nonNull).toList();
+    }
+
+    // Asynchronous operations
+    public CompletableFuture<List> createAsync() {
+        return BaseTrelloRepository.of(List.class).createAsync(this)
+                .thenApply(created -> {
+                    this.id = created.getId();
+                    return created;
+                });
+    }
+
+    public CompletableFuture<List> getAsync() {
+        return BaseTrelloRepository.of(List.class).getAsync(this);
+    }
+
+    public CompletableFuture<List> updateAsync() {
+        return BaseTrelloRepository.of(List.class).updateAsync(this);
+    }
+
+    public CompletableFuture<Void> deleteAsync() {
+        return BaseTrelloRepository.of(List.class).deleteAsync(this);
+    }
 }
@@ -12,9 +12,13 @@ public class ListRepository extends BaseTrelloRepository<List> {
         super(List.class, "lists");
     }
 
+    /**
+     * Closes the list, sending the closed flag only
+     */
     @Override
     public void delete(List entity) {
         entity.setClosed(true);
-        super.update(entity);
+        updateFields(entity, fields().maskOf("closed"));
+        forget(entity.getIdentifier());
     }
 }
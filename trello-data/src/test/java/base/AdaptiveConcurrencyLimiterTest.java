@@ -0,0 +1,99 @@
+package base;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void limitGrowsWhileLatencyIsFlat() {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 32, 2.0);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(100), false);
+        }
+
+        Assertions.assertTrue(limiter.getLimit() > 2, "Limit should have grown but is " + limiter.getLimit());
+    }
+
+    @Test
+    public void limitShrinksOnOverload() {
+        var limiter = new AdaptiveConcurrencyLimiter(16, 1, 32, 2.0);
+
+        limiter.acquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(100), true);
+
+        Assertions.assertEquals(12, limiter.getLimit());
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void limitShrinksWhenLatencyInflates() {
+        var limiter = new AdaptiveConcurrencyLimiter(16, 1, 32, 2.0);
+        limiter.acquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        limiter.acquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+
+        Assertions.assertTrue(limiter.getLimit() < 16, "Limit should have shrunk but is " + limiter.getLimit());
+    }
+
+    @Test
+    public void latencyBaselineFollowsRecentRequests() {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 32, 2.0);
+        limiter.acquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        // Slower calls are inflated against the fast one only until it leaves the window
+        for (int i = 0; i < 300; i++) {
+            limiter.acquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(100), false);
+        }
+
+        Assertions.assertTrue(limiter.getLimit() >= 2, "Limit should have recovered but is " + limiter.getLimit());
+    }
+
+    @Test
+    public void repositoryFailuresWithOverloadStatusShrinkTheLimit() {
+        var limiter = new AdaptiveConcurrencyLimiter(16, 1, 32, 2.0);
+
+        Assertions.assertThrows(TrelloApiException.class, () -> limiter.call(() -> {
+            throw TrelloApiException.wrap(new RuntimeException("Request failed", new HttpTimeoutException("timed out")));
+        }));
+
+        Assertions.assertEquals(12, limiter.getLimit());
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void clientErrorsDoNotShrinkTheLimit() {
+        var limiter = new AdaptiveConcurrencyLimiter(16, 1, 32, 2.0);
+
+        Assertions.assertThrows(TrelloApiException.class, () -> limiter.call(() -> {
+            throw new TrelloApiException(404, "Not Found");
+        }));
+
+        Assertions.assertEquals(16, limiter.getLimit());
+    }
+
+    @Test
+    public void statusIsFoundInTheCauses() {
+        var failure = new RuntimeException("Request failed", new TrelloApiException(503, "Service Unavailable"));
+
+        Assertions.assertEquals(503, AdaptiveConcurrencyLimiter.statusOf(failure));
+        Assertions.assertEquals(503, TrelloApiException.wrap(failure).getStatusCode());
+    }
+
+    @Test
+    public void statusIsNotParsedFromMessages() {
+        var failure = new IllegalStateException("Expected status code <200> but was <429>.");
+
+        Assertions.assertEquals(-1, AdaptiveConcurrencyLimiter.statusOf(failure));
+        Assertions.assertEquals(-1, TrelloApiException.wrap(failure).getStatusCode());
+    }
+}
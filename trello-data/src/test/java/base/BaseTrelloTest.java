@@ -6,21 +6,24 @@ import board.BoardRepositoryFactory;
 import card.Card;
 import card.CardRepository;
 import card.CardRepositoryFactory;
+import cleanup.CleanupEngine;
+import cleanup.DeferredCleanup;
+import cleanup.OrphanedBoardSweepExtension;
+import cleanup.RunScopedCleanupExtension;
 import list.List;
 import list.ListRepository;
 import list.ListRepositoryFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
 import solutions.bellatrix.data.configuration.FactoryProvider;
 import solutions.bellatrix.data.configuration.RepositoryProvider;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Base test class for Trello API tests
  * Manages factory instances and provides common setup/teardown functionality
  */
+@ExtendWith({OrphanedBoardSweepExtension.class, RunScopedCleanupExtension.class})
 public abstract class BaseTrelloTest {
     
     // Factory instances
@@ -28,10 +31,9 @@ public abstract class BaseTrelloTest {
     protected ListRepositoryFactory listFactory;
     protected CardRepositoryFactory cardFactory;
     
-    // Track created entities for cleanup
-    protected Set<String> createdBoardIds = new HashSet<>();
-    protected Set<String> createdListIds = new HashSet<>();
-    protected Set<String> createdCardIds = new HashSet<>();
+    // Track created entities for cleanup, unless the whole run is torn down by its tag
+    protected CleanupEngine cleanupEngine = new CleanupEngine();
+    private final boolean runScoped = TrelloSettings.current().getCleanup().isRunScoped();
     
     @BeforeEach
     public void setUp() {
@@ -58,84 +60,59 @@ public abstract class BaseTrelloTest {
 
     @AfterEach
     public void tearDown() {
-        // Clean up test data in reverse dependency order
-        cleanupCards();
-        cleanupLists();
-        cleanupBoards();
-    }
-
-    /**
-     * Clean up all created cards
-     */
-    protected void cleanupCards() {
-        for (String cardId : createdCardIds) {
-            try {
-                Card cardToDelete = cardFactory.buildDefault();
-                cardToDelete.setId(cardId);
-                cardToDelete.delete();
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
+        if (runScoped) {
+            return;
         }
-        createdCardIds.clear();
-    }
-    
-    /**
-     * Clean up all created lists
-     */
-    protected void cleanupLists() {
-        for (String listId : createdListIds) {
-            try {
-                List listToDelete = listFactory.buildDefault();
-                listToDelete.setId(listId);
-                listToDelete.delete();
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
+        // Boards cascade to their lists and cards, the remaining roots are deleted concurrently
+        if (TrelloSettings.current().getCleanup().isDeferred()) {
+            DeferredCleanup.getInstance().submit(cleanupEngine.drainRoots());
+        } else {
+            cleanupEngine.cleanup();
         }
-        createdListIds.clear();
     }
-    
-    /**
-     * Clean up all created boards
-     */
-    protected void cleanupBoards() {
-        for (String boardId : createdBoardIds) {
-            try {
-                Board boardToDelete = boardFactory.buildDefault();
-                boardToDelete.setId(boardId);
-                boardToDelete.delete();
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
-        }
-        createdBoardIds.clear();
-    }
-    
+
     /**
      * Track a created board for cleanup
      */
     protected void trackBoard(String boardId) {
-        if (boardId != null) {
-            createdBoardIds.add(boardId);
+        if (!runScoped) {
+            cleanupEngine.trackBoard(boardId);
         }
     }
-    
+
+    protected void trackBoard(Board board) {
+        if (!runScoped) {
+            cleanupEngine.track(board);
+        }
+    }
+
     /**
      * Track a created list for cleanup
      */
     protected void trackList(String listId) {
-        if (listId != null) {
-            createdListIds.add(listId);
+        if (!runScoped) {
+            cleanupEngine.trackList(listId, null);
         }
     }
-    
+
+    protected void trackList(List list) {
+        if (!runScoped) {
+            cleanupEngine.track(list);
+        }
+    }
+
     /**
      * Track a created card for cleanup
      */
     protected void trackCard(String cardId) {
-        if (cardId != null) {
-            createdCardIds.add(cardId);
+        if (!runScoped) {
+            cleanupEngine.trackCard(cardId, null, null);
+        }
+    }
+
+    protected void trackCard(Card card) {
+        if (!runScoped) {
+            cleanupEngine.track(card);
         }
     }
 }
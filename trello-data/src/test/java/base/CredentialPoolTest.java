@@ -0,0 +1,37 @@
+package base;
+
+import board.Board;
+import card.Card;
+import list.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CredentialPoolTest {
+
+    private final TrelloCredentials first = new TrelloCredentials("key-1", "token-1");
+    private final TrelloCredentials second = new TrelloCredentials("key-2", "token-2");
+
+    @Test
+    public void childrenStickToTheTokenOwningTheirParent() {
+        var credentialPool = new CredentialPool(java.util.List.of(first, second), true);
+        credentialPool.assign("board-id", second);
+        credentialPool.assign("list-id", second);
+
+        List list = List.builder().idBoard("board-id").build();
+        Card card = Card.builder().idList("list-id").build();
+
+        Assertions.assertEquals(second, credentialPool.select(list));
+        Assertions.assertEquals(second, credentialPool.select(card));
+    }
+
+    @Test
+    public void existingEntitiesKeepTheirOwner() {
+        var credentialPool = new CredentialPool(java.util.List.of(first, second), true);
+        credentialPool.assign("board-id", second);
+
+        Board board = Board.builder().id("board-id").build();
+
+        Assertions.assertEquals(second, credentialPool.select(board));
+        Assertions.assertEquals(second, credentialPool.callFor("board-id", credentialPool::active));
+    }
+}
@@ -0,0 +1,92 @@
+package base;
+
+import board.Board;
+import card.Card;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EntityCacheTest {
+
+    @Test
+    public void freshEntriesAreServedFromMemory() {
+        var cache = new EntityCache(10, Duration.ofMinutes(1));
+        var fetcher = new RecordingFetcher("{\"id\":\"board\"}", "\"v1\"");
+
+        cache.get(Board.class, "board", fetcher);
+        var json = cache.get(Board.class, "board", fetcher);
+
+        Assertions.assertEquals("{\"id\":\"board\"}", json);
+        Assertions.assertEquals(1, fetcher.etags.size());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void staleEntriesAreRevalidatedWithTheirEntityTag() {
+        var cache = new EntityCache(10, Duration.ZERO);
+        var fetcher = new RecordingFetcher("{\"id\":\"board\"}", "\"v1\"");
+
+        cache.get(Board.class, "board", fetcher);
+        fetcher.notModified = true;
+        var json = cache.get(Board.class, "board", fetcher);
+
+        Assertions.assertEquals("{\"id\":\"board\"}", json);
+        Assertions.assertNull(fetcher.etags.get(0));
+        Assertions.assertEquals("\"v1\"", fetcher.etags.get(1));
+        Assertions.assertEquals(1, cache.getRevalidations());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        var cache = new EntityCache(2, Duration.ofMinutes(1));
+        var fetcher = new RecordingFetcher("{}", null);
+
+        cache.get(Board.class, "first", fetcher);
+        cache.get(Board.class, "second", fetcher);
+        cache.get(Board.class, "first", fetcher);
+        cache.get(Board.class, "third", fetcher);
+        cache.get(Board.class, "first", fetcher);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(3, cache.getMisses());
+        Assertions.assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void invalidatedEntriesAreFetchedAgain() {
+        var cache = new EntityCache(10, Duration.ofMinutes(1));
+        var fetcher = new RecordingFetcher("{}", "\"v1\"");
+
+        cache.get(Card.class, "card", fetcher);
+        cache.get(Board.class, "card", fetcher);
+        cache.invalidate(Card.class, "card");
+        cache.get(Card.class, "card", fetcher);
+
+        Assertions.assertEquals(3, fetcher.etags.size());
+        Assertions.assertNull(fetcher.etags.get(2));
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    private static class RecordingFetcher implements EntityCache.Fetcher {
+
+        private final List<String> etags = new ArrayList<>();
+        private final String json;
+        private final String etag;
+        private boolean notModified;
+
+        RecordingFetcher(String json, String etag) {
+            this.json = json;
+            this.etag = etag;
+        }
+
+        @Override
+        public EntityCache.Response fetch(String etag) {
+            etags.add(etag);
+            return notModified ? EntityCache.Response.notModifiedResponse() : new EntityCache.Response(false, json, this.etag);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package base;
+
+import card.Card;
+import com.google.gson.stream.JsonReader;
+import list.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class EntityFieldsTest {
+
+    private final EntityFields<Card> fields = EntityFields.of(Card.class);
+
+    @Test
+    public void onlyChangedFieldsAreDirty() {
+        var card = Card.builder().id("card").name("Card").description("Description").closed(false).build();
+        var snapshot = fields.snapshot(card);
+
+        card.setName("Renamed card");
+        card.setClosed(false);
+        long dirtyMask = fields.dirtyMask(card, snapshot);
+
+        Assertions.assertEquals(fields.maskOf("name"), dirtyMask);
+        Assertions.assertEquals("{\"name\":\"Renamed card\"}", fields.toJson(card, dirtyMask).toString());
+    }
+
+    @Test
+    public void unsetFieldsAreNeverSent() {
+        var card = Card.builder().id("card").closed(true).build();
+
+        long dirtyMask = fields.dirtyMask(card, null);
+
+        Assertions.assertEquals(fields.maskOf("closed"), dirtyMask);
+        Assertions.assertEquals("{\"closed\":true}", fields.toJson(card, dirtyMask).toString());
+    }
+
+    @Test
+    public void clearedFieldsAreSentAsNull() {
+        var card = Card.builder().id("card").name("Card").description("Description").build();
+        var snapshot = fields.snapshot(card);
+
+        card.setDescription(null);
+        long dirtyMask = fields.dirtyMask(card, snapshot);
+
+        Assertions.assertEquals(fields.maskOf("desc"), dirtyMask);
+        Assertions.assertEquals("{\"desc\":null}", fields.toJson(card, dirtyMask).toString());
+    }
+
+    @Test
+    public void fieldsMissingFromTheResponseAreNotDirtyAfterTheWrite() {
+        var written = Card.builder().id("card").name("Card").description("Description").build();
+        var response = Card.builder().id("card").name("Card").build();
+
+        var snapshot = fields.snapshot(response, written);
+
+        Assertions.assertEquals(0, fields.dirtyMask(written, snapshot));
+        written.setDescription("Changed description");
+        Assertions.assertEquals(fields.maskOf("desc"), fields.dirtyMask(written, snapshot));
+    }
+
+    @Test
+    public void responsesAreMergedIntoTheExistingInstance() throws IOException {
+        var list = List.builder().id("list").build();
+        var card = Card.builder().id("card").name("Card").description("Description").build();
+        card.setList(list);
+
+        var response = "{\"id\":\"card\",\"name\":\"Renamed card\",\"closed\":true,\"badges\":{\"votes\":0}}";
+        fields.merge(new JsonReader(new StringReader(response)), card);
+
+        Assertions.assertEquals("Renamed card", card.getName());
+        Assertions.assertEquals(true, card.getClosed());
+        Assertions.assertEquals("Description", card.getDescription());
+        Assertions.assertSame(list, card.getList());
+    }
+
+    @Test
+    public void identifiersAreRemapped() {
+        var card = Card.builder().id("card").name("Card").idList("list").idBoard("board").build();
+
+        fields.remap(card, java.util.Map.of("card", "card copy", "list", "list copy"));
+
+        Assertions.assertEquals("card copy", card.getId());
+        Assertions.assertEquals("list copy", card.getIdList());
+        Assertions.assertEquals("board", card.getIdBoard());
+        Assertions.assertTrue(fields.stringValues(card).containsAll(java.util.List.of("card copy", "list copy", "board", "Card")));
+    }
+}
@@ -0,0 +1,26 @@
+package base;
+
+import board.Board;
+import card.Card;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class ProjectionTest {
+
+    @Test
+    public void gettersResolveToTrelloFieldNames() {
+        var projection = Projection.of(Card.class, Card::getName, Card::getDescription, Card::getIdList);
+
+        Assertions.assertEquals(Set.of("name", "desc", "idList"), projection.getFields());
+    }
+
+    @Test
+    public void namedProjectionsAreResolvedPerEntityType() {
+        var registered = Projection.register("status", Projection.of(Board.class, Board::getName, Board::getClosed));
+
+        Assertions.assertSame(registered, Projection.named(Board.class, "status"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Projection.named(Card.class, "status"));
+    }
+}
@@ -0,0 +1,24 @@
+package base;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class SharedTokenBucketRateLimiterTest {
+
+    @Test
+    public void limitersMappingTheSameFileShareOneBudget(@TempDir Path directory) {
+        var stateFile = SharedTokenBucketRateLimiter.stateFile(directory, new TrelloCredentials("key", "token"));
+        var firstProcess = new SharedTokenBucketRateLimiter(stateFile, 5, Duration.ofSeconds(10));
+        var secondProcess = new SharedTokenBucketRateLimiter(stateFile, 5, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 4; i++) {
+            firstProcess.acquire();
+        }
+
+        Assertions.assertEquals(1, secondProcess.availablePermits());
+    }
+}
@@ -0,0 +1,92 @@
+package base;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Test
+    public void concurrentCallsShareOneResult() throws Exception {
+        var singleFlight = new SingleFlight<String, String>();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var invocations = new AtomicInteger();
+
+        var leader = CompletableFuture.supplyAsync(() -> singleFlight.run("board", () -> {
+            invocations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "{\"id\":\"board\"}";
+        }), executor);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        var followers = new CompletableFuture[4];
+        for (int i = 0; i < followers.length; i++) {
+            followers[i] = CompletableFuture.supplyAsync(() -> singleFlight.run("board", () -> {
+                invocations.incrementAndGet();
+                return "second request";
+            }), executor);
+        }
+        while (singleFlight.getShared() < followers.length) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        Assertions.assertEquals("{\"id\":\"board\"}", leader.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<?> follower : followers) {
+            Assertions.assertEquals("{\"id\":\"board\"}", follower.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, invocations.get());
+        Assertions.assertEquals(1, singleFlight.getCalls());
+    }
+
+    @Test
+    public void failuresAreSharedAndNotKept() {
+        var singleFlight = new SingleFlight<String, String>();
+
+        Assertions.assertThrows(TrelloApiException.class, () -> singleFlight.run("board", () -> {
+            throw new TrelloApiException(429, "{}");
+        }));
+        var value = singleFlight.run("board", () -> "{}");
+
+        Assertions.assertEquals("{}", value);
+        Assertions.assertEquals(2, singleFlight.getCalls());
+    }
+
+    @Test
+    public void forgottenCallsAreNotJoined() throws Exception {
+        var singleFlight = new SingleFlight<String, String>();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var stale = CompletableFuture.supplyAsync(() -> singleFlight.run("board", () -> {
+            started.countDown();
+            await(release);
+            return "before update";
+        }), executor);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        singleFlight.forget("board");
+        var fresh = singleFlight.run("board", () -> "after update");
+        release.countDown();
+
+        Assertions.assertEquals("after update", fresh);
+        Assertions.assertEquals("before update", stale.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, singleFlight.getShared());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
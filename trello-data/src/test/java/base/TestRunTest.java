@@ -0,0 +1,46 @@
+package base;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+public class TestRunTest {
+
+    @Test
+    public void stampedDescriptionsCarryTheRunId() {
+        var run = new TestRun("lq2x9k1a");
+
+        Assertions.assertEquals("Board for tests tdrunlq2x9k1a", run.stamp("Board for tests"));
+        Assertions.assertEquals("tdrunlq2x9k1a", run.stamp(null));
+        Assertions.assertEquals(Optional.of("lq2x9k1a"), TestRun.runIdOf(run.stamp("Board for tests")));
+    }
+
+    @Test
+    public void untaggedDescriptionsHaveNoRunId() {
+        Assertions.assertEquals(Optional.empty(), TestRun.runIdOf("Updated description via streamlined flow"));
+        Assertions.assertEquals(Optional.empty(), TestRun.runIdOf(null));
+    }
+
+    @Test
+    public void updatesOfTaggedEntitiesKeepTheTag() {
+        var run = new TestRun("lq2x9k1a");
+        run.created("tagged-board", run.stamp("Board for tests"));
+        run.created("foreign-board", "Shared board");
+
+        Assertions.assertEquals("Updated description tdrunlq2x9k1a", run.restamp("tagged-board", "Updated description"));
+        Assertions.assertEquals("tdrunlq2x9k1a", run.restamp("tagged-board", null));
+        Assertions.assertEquals(run.stamp("Kept"), run.restamp("tagged-board", run.stamp("Kept")));
+        Assertions.assertEquals("Updated description", run.restamp("foreign-board", "Updated description"));
+    }
+
+    @Test
+    public void runsWithoutRunScopedCleanupLeaveDescriptionsAlone() {
+        var run = new TestRun("lq2x9k1a", false);
+        run.created("board", run.tag("Board for tests"));
+
+        Assertions.assertEquals("Board for tests", run.tag("Board for tests"));
+        Assertions.assertNull(run.tag(null));
+        Assertions.assertEquals("Updated description", run.restamp("board", "Updated description"));
+    }
+}
@@ -0,0 +1,49 @@
+package base;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    public void requestsArePacedOnceTheBurstIsSpent() {
+        var rateLimiter = new TokenBucketRateLimiter(5, Duration.ofMillis(500));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire();
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // 5 permits are available immediately, the other 5 refill at one per 100 ms
+        Assertions.assertTrue(elapsedMillis >= 400, "Expected pacing but took " + elapsedMillis + " ms");
+        Assertions.assertEquals(5, rateLimiter.getThrottledRequests());
+    }
+
+    @Test
+    public void retryAfterPausesTheBucket() {
+        var rateLimiter = new TokenBucketRateLimiter(100, Duration.ofSeconds(10));
+
+        rateLimiter.onResponse(429, headers(Map.of("Retry-After", List.of("1"))));
+
+        Assertions.assertEquals(0, rateLimiter.availablePermits());
+    }
+
+    @Test
+    public void remainingHeaderLowersTheBudget() {
+        var rateLimiter = new TokenBucketRateLimiter(100, Duration.ofSeconds(10));
+
+        rateLimiter.onResponse(200, headers(Map.of("x-rate-limit-api-token-remaining", List.of("3"))));
+
+        Assertions.assertEquals(3, rateLimiter.availablePermits());
+    }
+
+    private static HttpHeaders headers(Map<String, List<String>> values) {
+        return HttpHeaders.of(values, (name, value) -> true);
+    }
+}
@@ -0,0 +1,42 @@
+package base;
+
+import card.Card;
+import card.CardTypeAdapter;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class TrelloJsonTest {
+
+    @Test
+    public void generatedAdaptersAreRegistered() {
+        Assertions.assertInstanceOf(CardTypeAdapter.class, TrelloJson.GSON.getAdapter(Card.class));
+    }
+
+    @Test
+    public void generatedAdapterRoundTrip() {
+        var json = "{\"id\":\"card\",\"name\":\"Card\",\"desc\":\"Description\",\"closed\":false,\"idList\":\"list\",\"badges\":{\"votes\":1}}";
+
+        var card = TrelloJson.GSON.fromJson(json, Card.class);
+
+        Assertions.assertEquals("Description", card.getDescription());
+        Assertions.assertEquals("list", card.getIdList());
+        Assertions.assertEquals("{\"id\":\"card\",\"name\":\"Card\",\"desc\":\"Description\",\"closed\":false,\"idList\":\"list\"}",
+                TrelloJson.GSON.toJson(card));
+    }
+
+    @Test
+    public void generatedAdapterMergesIntoAnInstance() throws IOException {
+        var card = Card.builder().id("card").name("Card").description("Description").build();
+        var adapter = (CardTypeAdapter) TrelloJson.GSON.getAdapter(Card.class);
+
+        adapter.mergeInto(new JsonReader(new StringReader("{\"name\":\"Renamed card\",\"closed\":true}")), card);
+
+        Assertions.assertEquals("Renamed card", card.getName());
+        Assertions.assertEquals(true, card.getClosed());
+        Assertions.assertEquals("Description", card.getDescription());
+    }
+}
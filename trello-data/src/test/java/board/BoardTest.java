@@ -1,6 +1,12 @@
 package board;
 
+import base.BaseTrelloRepository;
 import base.BaseTrelloTest;
+import card.Card;
+import fixture.BoardLease;
+import fixture.BoardPool;
+import list.List;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 public class BoardTest extends BaseTrelloTest {
@@ -39,4 +45,100 @@ public class BoardTest extends BaseTrelloTest {
             assert board.getDescription().equals(updatedDescription);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void boardGraphFetchTest() {
+        Board board = boardFactory.buildDefault().create();
+        trackBoard(board.getId());
+
+        List todo = listFactory.buildWithName(board.getId(), "To Do");
+        todo.create();
+        List done = listFactory.buildWithName(board.getId(), "Done");
+        done.create();
+
+        Card firstCard = cardFactory.buildDefault(todo.getId());
+        firstCard.setName("First Card");
+        firstCard.create();
+        Card secondCard = cardFactory.buildDefault(done.getId());
+        secondCard.setName("Second Card");
+        secondCard.create();
+
+        // Board, lists and cards come back from one request, already linked to each other
+        BoardGraph graph = board.fetchGraph();
+
+        // The board also carries Trello's default lists, so the created ones are looked up by id
+        Assertions.assertEquals(board.getId(), graph.getBoard().getId());
+        List fetchedTodo = listById(graph, todo.getId());
+        List fetchedDone = listById(graph, done.getId());
+        Assertions.assertEquals(2, graph.getCards().size());
+        Assertions.assertSame(graph.getBoard(), fetchedTodo.getBoard());
+        Assertions.assertSame(fetchedDone, graph.getCard("Second Card").getList());
+        Assertions.assertEquals(java.util.List.of(firstCard.getId()),
+                graph.getCards(fetchedTodo).stream().map(Card::getId).toList());
+    }
+
+    @Test
+    public void boardFromTemplateTest() {
+        boardFactory.registerTemplate("kanban", BoardTemplate.builder()
+                .list("To Do", "Write tests", "Fix bug")
+                .list("Doing", "Review PR")
+                .list("Done")
+                .build());
+
+        try {
+            // The template board is created once, every fixture afterwards is a single copy
+            BoardGraph first = boardFactory.createFromTemplate("kanban");
+            trackBoard(first.getBoard().getId());
+            BoardGraph second = boardFactory.createFromTemplate("kanban");
+            trackBoard(second.getBoard().getId());
+
+            Assertions.assertNotEquals(first.getBoard().getId(), second.getBoard().getId());
+            Assertions.assertEquals(3, second.getLists().size());
+            Assertions.assertEquals(3, second.getCards().size());
+            Assertions.assertEquals(2, second.getCards(second.getList("To Do")).size());
+            Assertions.assertSame(second.getList("Doing"), second.getCard("Review PR").getList());
+        } finally {
+            BoardRepositoryFactory.discardTemplates();
+        }
+    }
+
+    @Test
+    public void boardProjectionTest() {
+        Board board = boardFactory.buildDefault().create();
+        trackBoard(board.getId());
+
+        // Only the projected fields are downloaded, the others stay null
+        Board projected = BaseTrelloRepository.of(Board.class).get(board, Board::getName, Board::getClosed);
+
+        Assertions.assertEquals(board.getName(), projected.getName());
+        Assertions.assertEquals(false, projected.getClosed());
+        Assertions.assertNull(projected.getDescription());
+        Assertions.assertNull(projected.getUrl());
+    }
+
+    @Test
+    public void boardPoolLeaseTest() {
+        var layout = BoardTemplate.builder()
+                .list("To Do", "Write tests")
+                .list("Done")
+                .build();
+
+        // The pool owns its boards and deletes them on close, so they are not tracked here
+        try (var pool = new BoardPool(1, layout)) {
+            try (BoardLease first = pool.lease(); BoardLease second = pool.lease()) {
+                Assertions.assertNotEquals(first.getBoard().getId(), second.getBoard().getId());
+                Assertions.assertEquals(2, first.getGraph().getLists().size());
+                Assertions.assertSame(first.getGraph().getList("To Do"), first.getGraph().getCard("Write tests").getList());
+                second.markDirty();
+            }
+            Assertions.assertEquals(2, pool.getWarmLeases() + pool.getColdLeases());
+        }
+    }
+
+    private static List listById(BoardGraph graph, String id) {
+        return graph.getLists().stream()
+                .filter(list -> id.equals(list.getId()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("List " + id + " is missing from the graph"));
+    }
+}
@@ -2,11 +2,19 @@ package card;
 
 import board.Board;
 import list.List;
+import base.BaseTrelloRepository;
 import base.BaseTrelloTest;
+import base.DependencyGraph;
+import base.TrelloSession;
+import board.BoardTemplate;
+import fixture.FixtureView;
+import fixture.SharedFixture;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import solutions.bellatrix.data.configuration.RepositoryProvider;
 
+import java.util.ArrayList;
+
 public class CardTest extends BaseTrelloTest {
 
     @Test
@@ -16,11 +24,11 @@ public class CardTest extends BaseTrelloTest {
         
         // Create list using default state from factory with board ID
         List testList = listFactory.buildDefault(testBoard.getId()).create();
-        trackList(testList.getId());
+        trackList(testList);
         
         // Create card using default state from factory with list ID
         Card card = cardFactory.buildDefault(testList.getId()).create();
-        trackCard(card.getId());
+        trackCard(card);
 
         // Retrieve and verify card properties
         card = card.get();
@@ -85,4 +93,125 @@ public class CardTest extends BaseTrelloTest {
         Assertions.assertEquals(card.getList().getName(), expectedListName);
         Assertions.assertEquals(card.getList().getBoard().getName(), expectedBoardName);
       }
-}
\ No newline at end of file
+
+    @Test
+    public void cardsSharingDependenciesTest() {
+        // Many cards share one list (and therefore one board)
+        List sharedList = listFactory.buildDefaultWithDependencies();
+        var cards = new ArrayList<Card>();
+        for (int i = 0; i < 5; i++) {
+            Card card = cardFactory.buildDefault();
+            card.setName("Shared Dependency Card " + i);
+            card.setList(sharedList);
+            cards.add(card);
+        }
+
+        // Board -> List -> Cards: shared parents are planned once, siblings are created concurrently
+        var graph = DependencyGraph.of(cards);
+        Assertions.assertEquals(7, graph.size());
+        Assertions.assertEquals(3, graph.getLevels().size());
+
+        graph.create();
+        trackBoard(sharedList.getBoard().getId());
+        trackList(sharedList);
+        cards.forEach(this::trackCard);
+
+        Assertions.assertNotNull(sharedList.getBoard().getId());
+        Assertions.assertEquals(sharedList.getBoard().getId(), sharedList.getIdBoard());
+        for (Card card : cards) {
+            Assertions.assertNotNull(card.getId());
+            Assertions.assertEquals(sharedList.getId(), card.getIdList());
+        }
+    }
+
+    @Test
+    public void cardBatchReadTest() {
+        Board testBoard = boardFactory.buildDefault().create();
+        trackBoard(testBoard.getId());
+        List testList = listFactory.buildDefault(testBoard.getId()).create();
+
+        var cards = new ArrayList<Card>();
+        for (int i = 0; i < 12; i++) {
+            Card card = cardFactory.buildDefault(testList.getId());
+            card.setName("Batch Card " + i);
+            card.create();
+            cards.add(card);
+        }
+
+        // Local modifications are overwritten by the server state, one round trip per 10 cards
+        cards.forEach(card -> card.setName("stale"));
+        Card missingCard = cardFactory.buildDefault(testList.getId());
+        missingCard.setId("000000000000000000000000");
+        cards.add(missingCard);
+
+        var result = BaseTrelloRepository.of(Card.class).getAll(cards);
+
+        Assertions.assertEquals(12, result.getSucceeded().size());
+        Assertions.assertEquals(1, result.getFailures().size());
+        Assertions.assertTrue(result.getFailures().containsKey(missingCard));
+        for (int i = 0; i < 12; i++) {
+            Assertions.assertEquals("Batch Card " + i, cards.get(i).getName());
+        }
+    }
+
+    @Test
+    public void cardSessionCommitTest() {
+        Board testBoard = boardFactory.buildDefault();
+        List testList = listFactory.buildDefault();
+        testList.setBoard(testBoard);
+        Card card = cardFactory.buildDefault();
+        card.setList(testList);
+
+        // The board and list are created along with the card, parents first
+        try (var session = new TrelloSession()) {
+            session.create(card);
+            session.commit();
+            trackBoard(testBoard);
+            assert card.getIdList().equals(testList.getId());
+
+            // Consecutive changes are sent as a single update
+            String updatedName = "Session Card " + System.currentTimeMillis();
+            card.setName(updatedName);
+            card.setDescription("Updated in one request");
+            card.setClosed(true);
+            session.commit();
+
+            Card fetched = card.get();
+            Assertions.assertEquals(updatedName, fetched.getName());
+            Assertions.assertEquals(true, fetched.getClosed());
+        }
+    }
+
+    @Test
+    public void sharedFixtureCopyOnWriteTest() {
+        try (var fixture = SharedFixture.create(BoardTemplate.builder().list("To Do", "Shared Card").build());
+             FixtureView reader = fixture.view();
+             FixtureView writer = fixture.view();
+             FixtureView creator = fixture.view()) {
+            // Reading goes to the shared board
+            Card readCard = reader.getGraph().getCard("Shared Card").get();
+            Assertions.assertEquals(fixture.getBoardId(), reader.getBoard().getId());
+
+            // The first write forks the writer's view onto a private copy of the board
+            Card writtenCard = writer.getGraph().getCard("Shared Card");
+            writtenCard.setName("Changed Card");
+            writtenCard.update();
+
+            Assertions.assertTrue(writer.isForked());
+            Assertions.assertFalse(reader.isForked());
+            Assertions.assertNotEquals(fixture.getBoardId(), writer.getBoard().getId());
+            Assertions.assertNotEquals(readCard.getId(), writtenCard.getId());
+            Assertions.assertEquals("Shared Card", readCard.get().getName());
+
+            // Creating a card in a shared list is a first write too: it forks the view opened last and lands on its copy
+            String sharedListId = creator.getGraph().getList("To Do").getId();
+            Assertions.assertFalse(creator.isForked());
+            Card added = cardFactory.buildDefault(sharedListId).create();
+
+            Assertions.assertTrue(creator.isForked());
+            Assertions.assertNotEquals(sharedListId, added.getIdList());
+            Assertions.assertEquals(creator.getGraph().getList("To Do").getId(), added.getIdList());
+            Assertions.assertEquals(sharedListId, reader.getGraph().getList("To Do").getId());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package cleanup;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class CleanupEngineTest {
+
+    @Test
+    public void childrenOfDeletedBoardsArePruned() {
+        var entities = List.of(
+                new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.BOARD, "board", null, null),
+                new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.LIST, "list", "board", null),
+                new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.CARD, "card", "board", "list"),
+                new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.CARD, "card-of-list", null, "list"));
+
+        var roots = CleanupEngine.plan(entities);
+
+        Assertions.assertEquals(1, roots.size());
+        Assertions.assertEquals("board", roots.get(0).id());
+    }
+
+    @Test
+    public void entitiesOnForeignBoardsAreDeletedIndividually() {
+        var entities = List.of(
+                new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.LIST, "list", "foreign-board", null),
+                new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.CARD, "card", "foreign-board", "other-list"),
+                new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.CARD, "card-of-list", "foreign-board", "list"));
+
+        var roots = CleanupEngine.plan(entities).stream().map(CleanupEngine.TrackedEntity::id).toList();
+
+        Assertions.assertEquals(List.of("list", "card"), roots);
+    }
+}
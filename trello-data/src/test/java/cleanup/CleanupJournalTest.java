@@ -0,0 +1,67 @@
+package cleanup;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class CleanupJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void cleanedEntitiesAndTheirContentsAreNotPending() {
+        var file = CleanupJournal.journalFile(directory, 1);
+        try (var journal = new CleanupJournal(file, 16, Duration.ofMillis(10))) {
+            journal.tracked(new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.BOARD, "leaked-board", null, null));
+            journal.tracked(new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.LIST, "leaked-list", "leaked-board", null));
+            journal.tracked(new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.BOARD, "deleted-board", null, null));
+            journal.tracked(new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.CARD, "card", "deleted-board", "list"));
+            journal.cleaned("deleted-board");
+        }
+
+        var pending = CleanupJournal.pending(file).stream().map(CleanupEngine.TrackedEntity::id).toList();
+
+        Assertions.assertEquals(java.util.List.of("leaked-board", "leaked-list"), pending);
+        Assertions.assertEquals(1, CleanupEngine.plan(CleanupJournal.pending(file)).size());
+    }
+
+    @Test
+    public void journalGrowsAndIsContinuedAfterReopening() {
+        var file = CleanupJournal.journalFile(directory, 2);
+        try (var journal = new CleanupJournal(file, 4, Duration.ofMillis(10))) {
+            for (int i = 0; i < 10; i++) {
+                journal.tracked(new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.CARD, "card-" + i, "board", "list"));
+            }
+        }
+        try (var journal = new CleanupJournal(file, 4, Duration.ofMillis(10))) {
+            journal.cleaned("card-0");
+        }
+
+        var pending = CleanupJournal.pending(file);
+
+        Assertions.assertEquals(9, pending.size());
+        Assertions.assertEquals("card-1", pending.get(0).id());
+        Assertions.assertEquals("list", pending.get(0).listId());
+    }
+
+    @Test
+    public void journalIsRemovedOnlyOnceNothingIsPending() {
+        var file = CleanupJournal.journalFile(directory, 3);
+        try (var journal = new CleanupJournal(file, 16, Duration.ofMillis(10))) {
+            journal.tracked(new CleanupEngine.TrackedEntity(CleanupEngine.EntityKind.BOARD, "board", null, null));
+
+            Assertions.assertFalse(journal.retire());
+            Assertions.assertTrue(Files.exists(file));
+
+            journal.cleaned("board");
+
+            Assertions.assertTrue(journal.retire());
+            Assertions.assertFalse(Files.exists(file));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package cleanup;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public class OrphanedBoardSweeperTest {
+
+    // 0x65000000 seconds after the epoch
+    private static final String BOARD_ID = "65000000a1b2c3d4e5f60718";
+    private static final Instant CREATED_AT = Instant.ofEpochSecond(0x65000000L);
+
+    private final OrphanedBoardSweeper sweeper = new OrphanedBoardSweeper(List.of("Default Test Board "), Duration.ofHours(1), 4);
+
+    @Test
+    public void creationTimeIsReadFromTheIdentifier() {
+        Assertions.assertEquals(CREATED_AT, OrphanedBoardSweeper.createdAt(BOARD_ID));
+        Assertions.assertNull(OrphanedBoardSweeper.createdAt("not-an-object-id"));
+    }
+
+    @Test
+    public void onlyOldBoardsWithTheTestPrefixMatch() {
+        var later = CREATED_AT.plus(Duration.ofHours(2));
+
+        Assertions.assertTrue(sweeper.matches(BOARD_ID, "Default Test Board 1696595968000", later));
+        Assertions.assertFalse(sweeper.matches(BOARD_ID, "Team Roadmap", later));
+        Assertions.assertFalse(sweeper.matches(BOARD_ID, "Default Test Board 1696595968000", CREATED_AT.plus(Duration.ofMinutes(5))));
+    }
+
+    @Test
+    public void prefixesCanHaveTheirOwnMinimumAge() {
+        var withFixtures = sweeper.withPrefix("Fixture ", Duration.ofDays(7));
+
+        Assertions.assertFalse(withFixtures.matches(BOARD_ID, "Fixture readonly-kanban", CREATED_AT.plus(Duration.ofHours(2))));
+        Assertions.assertTrue(withFixtures.matches(BOARD_ID, "Fixture readonly-kanban", CREATED_AT.plus(Duration.ofDays(8))));
+        Assertions.assertTrue(withFixtures.matches(BOARD_ID, "Default Test Board 1696595968000", CREATED_AT.plus(Duration.ofHours(2))));
+    }
+}
@@ -0,0 +1,54 @@
+package fixture;
+
+import board.BoardTemplate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class FixtureCacheTest {
+
+    private static final BoardTemplate KANBAN = BoardTemplate.builder()
+            .list("To Do", "Write tests", "Fix bug")
+            .list("Done")
+            .build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void equalFixturesShareAFingerprint() {
+        var sameLayout = BoardTemplate.builder()
+                .list("To Do", "Write tests", "Fix bug")
+                .list("Done")
+                .build();
+
+        Assertions.assertEquals(FixtureCache.fingerprint("kanban", KANBAN), FixtureCache.fingerprint("kanban", sameLayout));
+    }
+
+    @Test
+    public void anyChangeYieldsANewFingerprint() {
+        var movedCard = BoardTemplate.builder()
+                .list("To Do", "Write tests")
+                .list("Done", "Fix bug")
+                .build();
+
+        var fingerprint = FixtureCache.fingerprint("kanban", KANBAN);
+        Assertions.assertNotEquals(fingerprint, FixtureCache.fingerprint("kanban", movedCard));
+        Assertions.assertNotEquals(fingerprint, FixtureCache.fingerprint("scrum", KANBAN));
+    }
+
+    @Test
+    public void entriesSurviveARoundTrip() throws IOException {
+        var file = directory.resolve("fixtures.json");
+        var entry = new FixtureCache.CachedFixture("5f1b2c3d4e5f60718293a4b5", "0123456789abcdef", 1_700_000_000_000L);
+
+        Assertions.assertTrue(FixtureCache.read(file).isEmpty());
+        FixtureCache.write(file, Map.of("fingerprint", entry));
+
+        Assertions.assertEquals(Map.of("fingerprint", entry), FixtureCache.read(file));
+    }
+}
@@ -4,6 +4,9 @@ import board.Board;
 import base.BaseTrelloTest;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
 public class ListTest extends BaseTrelloTest {
 
     @Test
@@ -14,7 +17,7 @@ public class ListTest extends BaseTrelloTest {
         
         // Create list using default state from factory with board ID
         List list = listFactory.buildDefault(testBoard.getId()).create();
-        trackList(list.getId());
+        trackList(list);
         
         // Retrieve and verify list properties
         list = list.get();
@@ -45,4 +48,32 @@ public class ListTest extends BaseTrelloTest {
         }
         assert list.getClosed() == true;
     }
-}
\ No newline at end of file
+
+    @Test
+    public void listAsyncCreationTest() {
+        Board testBoard = boardFactory.buildDefault().create();
+        trackBoard(testBoard.getId());
+
+        // Sibling lists do not depend on each other, so they can be created concurrently
+        var lists = new ArrayList<List>();
+        var creations = new ArrayList<CompletableFuture<List>>();
+        for (int i = 0; i < 5; i++) {
+            List list = listFactory.buildDefault(testBoard.getId());
+            list.setName("Async List " + i);
+            lists.add(list);
+            creations.add(list.createAsync());
+        }
+        CompletableFuture.allOf(creations.toArray(CompletableFuture[]::new)).join();
+
+        for (List list : lists) {
+            assert list.getId() != null;
+            trackList(list);
+        }
+
+        // Read them back concurrently as well
+        var reads = lists.stream().map(List::getAsync).toList();
+        for (CompletableFuture<List> read : reads) {
+            assert read.join().getIdBoard().equals(testBoard.getId());
+        }
+    }
+}
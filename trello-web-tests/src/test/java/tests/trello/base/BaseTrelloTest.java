@@ -9,14 +9,19 @@ import card.CardRepositoryFactory;
 import com.trello.pages.board.BoardPage;
 import com.trello.pages.boards.BoardsPage;
 import com.trello.pages.login.LoginPage;
+import fixture.BoardLease;
+import fixture.BoardPool;
 import list.List;
 import list.ListRepository;
 import list.ListRepositoryFactory;
+import org.junit.jupiter.api.AfterEach;
 import solutions.bellatrix.data.configuration.FactoryProvider;
 import solutions.bellatrix.data.configuration.RepositoryProvider;
 import solutions.bellatrix.data.plugins.TestDataCleanupPlugin;
 import solutions.bellatrix.web.infrastructure.junit.WebTest;
 
+import java.util.ArrayList;
+
 public class BaseTrelloTest extends WebTest {
 
     protected LoginPage loginPage;
@@ -25,6 +30,7 @@ public class BaseTrelloTest extends WebTest {
     protected BoardRepositoryFactory boardFactory;
     protected ListRepositoryFactory listFactory;
     protected CardRepositoryFactory cardFactory;
+    private final java.util.List<BoardLease> leases = new ArrayList<>();
 
     @Override
     protected void configure() {
@@ -55,4 +61,19 @@ public class BaseTrelloTest extends WebTest {
         RepositoryProvider.INSTANCE.register(List.class, ListRepository.class);
         RepositoryProvider.INSTANCE.register(Board.class, BoardRepository.class);
     }
+
+    /**
+     * Borrows a ready-made board from the shared pool instead of creating one; it is returned after the test
+     */
+    protected BoardLease leaseBoard() {
+        var lease = BoardPool.shared().lease();
+        leases.add(lease);
+        return lease;
+    }
+
+    @AfterEach
+    public void releaseBoards() {
+        leases.forEach(BoardLease::close);
+        leases.clear();
+    }
 }
@@ -1,8 +1,10 @@
 package tests.trello.data;
 
+import board.BoardTemplate;
 import com.trello.pages.board.BoardPage;
 import com.trello.pages.boards.BoardsPage;
 import com.trello.pages.login.LoginPage;
+import fixture.FixtureCache;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import solutions.bellatrix.web.infrastructure.Browser;
@@ -10,6 +12,7 @@ import solutions.bellatrix.web.infrastructure.ExecutionBrowser;
 import solutions.bellatrix.web.infrastructure.Lifecycle;
 import tests.trello.base.BaseTrelloTest;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -54,6 +57,35 @@ public class DataIntegrationTests extends BaseTrelloTest {
             "Board created via API should be visible in UI");
     }
 
+    @Test
+    public void pooledBoard_when_verifiedInUI() {
+        // A leased board is ready at once, with Trello's default lists
+        var board = leaseBoard().getBoard();
+
+        boardsPage.open();
+        boardsPage.openBoardByTitle(board.getName());
+        boardPage.assertNavigated();
+
+        Assertions.assertFalse(boardPage.getAllListsTitles().isEmpty(), "Pooled board should have its lists");
+    }
+
+    @Test
+    public void cachedFixtureBoard_when_verifiedInUI() {
+        // Built once and reused by later runs while it is intact, so this test only reads it
+        var graph = FixtureCache.getInstance().board("data-integration-readonly", BoardTemplate.builder()
+                .list("Backlog", "Backlog Item")
+                .list("In Progress", "Work in Progress")
+                .list("Done")
+                .build());
+
+        boardsPage.open();
+        boardsPage.openBoardByTitle(graph.getBoard().getName());
+        boardPage.assertNavigated();
+
+        var listTitles = boardPage.getAllListsTitles();
+        Assertions.assertEquals(List.of("Backlog", "In Progress", "Done"), listTitles);
+    }
+
     @Test
     public void boardWithListsAndCardsCreatedViaAPI_when_verifiedInUI() {
         // Create board via API using factory